@@ -0,0 +1,48 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Une seule candidature par candidat et par offre.
+ * Les doublons éventuels ne sont pas supprimés ici : la migration échoue en les listant,
+ * ils doivent être fusionnés (état, décision, lettre) avant de la relancer.
+ */
+public class V4__unicite_candidature extends BaseJavaMigration {
+
+    private static final int MAX_DOUBLONS_AFFICHES = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        List<String> doublons = new ArrayList<>();
+        long total = 0;
+        try (Statement st = context.getConnection().createStatement();
+             ResultSet rs = st.executeQuery(
+                     "SELECT candidat_id, offre_id, GROUP_CONCAT(id ORDER BY id) FROM candidature "
+                             + "GROUP BY candidat_id, offre_id HAVING COUNT(*) > 1")) {
+            while (rs.next()) {
+                total++;
+                if (doublons.size() < MAX_DOUBLONS_AFFICHES) {
+                    doublons.add("candidat " + rs.getLong(1) + ", offre " + rs.getLong(2)
+                            + " : candidatures " + rs.getString(3));
+                }
+            }
+        }
+
+        if (total > 0) {
+            throw new IllegalStateException(total + " couple(s) (candidat, offre) ont plusieurs candidatures, "
+                    + "à fusionner avant la migration :\n" + String.join("\n", doublons)
+                    + (total > doublons.size() ? "\n..." : ""));
+        }
+
+        try (Statement st = context.getConnection().createStatement()) {
+            st.execute("ALTER TABLE candidature "
+                    + "ADD CONSTRAINT uk_candidature_candidat_offre UNIQUE (candidat_id, offre_id)");
+        }
+    }
+}
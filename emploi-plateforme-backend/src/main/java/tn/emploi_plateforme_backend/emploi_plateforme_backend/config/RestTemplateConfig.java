@@ -1,7 +1,19 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
@@ -9,6 +21,7 @@ import org.springframework.web.client.RestTemplate;
 public class RestTemplateConfig {
 
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
         RestTemplate restTemplate = new RestTemplate();
 
@@ -20,4 +33,45 @@ public class RestTemplateConfig {
         restTemplate.setRequestFactory(factory);
         return restTemplate;
     }
-}
\ No newline at end of file
+
+    // pool de connexions persistantes vers le service de matching Python
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager matchingConnectionManager(
+            @Value("${matching.api.pool.max-total:16}") int maxTotal,
+            @Value("${matching.api.pool.max-per-route:8}") int maxPerRoute,
+            @Value("${matching.api.connect-timeout:5000}") long connectTimeoutMs,
+            @Value("${matching.api.timeout:30000}") long timeoutMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(timeoutMs))
+                        // revalide une connexion restée inactive avant de la réutiliser
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient matchingHttpClient(
+            @Qualifier("matchingConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${matching.api.pool.acquire-timeout:2000}") long acquireTimeoutMs,
+            @Value("${matching.api.timeout:30000}") long timeoutMs) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(timeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate matchingRestTemplate(@Qualifier("matchingHttpClient") CloseableHttpClient httpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+}
@@ -0,0 +1,9 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
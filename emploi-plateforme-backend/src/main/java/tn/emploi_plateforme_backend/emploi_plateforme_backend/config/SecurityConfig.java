@@ -43,7 +43,8 @@ public class SecurityConfig {
                                 "/api/auth/**",
                                 "/api/auth/forgot-password",
                                 "/api/auth/reset-password",
-                                "/api/jobs", "/api/jobs/search", "/api/jobs/{id}"
+                                "/api/jobs", "/api/jobs/search", "/api/jobs/{id}",
+                                "/api/jobs/active/page", "/api/jobs/active/stream", "/api/jobs/suggest"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -4,15 +4,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.ApplicationDecisionItem;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.ApplicationRequest;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.ApplicationStatusRequest;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureTrieeDTO;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidature;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.JobRecalcul;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.ApplicationService;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.RecalculScoresService;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 
 @RestController
@@ -23,6 +27,9 @@ public class ApplicationController {
     @Autowired
     private ApplicationService applicationService;
 
+    @Autowired
+    private RecalculScoresService recalculScoresService;
+
     @PostMapping
     public ResponseEntity<String> applyToJob(@RequestBody ApplicationRequest request, Authentication auth) {
         try {
@@ -85,6 +92,36 @@ public class ApplicationController {
     }
 
 
+    // mise a jour statut par lot : un résultat par candidature, les erreurs n'annulent pas les autres
+    @PutMapping("/status")
+    public ResponseEntity<Map<String, Object>> updateApplicationStatusBatch(
+            @RequestBody List<ApplicationDecisionItem> items,
+            Authentication auth) {
+        if (items == null || items.isEmpty() || items.size() > 1000) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", "Le lot doit contenir entre 1 et 1000 candidatures");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        try {
+            String email = auth.getName();
+            List<Map<String, Object>> results = applicationService.updateApplicationStatusBatch(items, email);
+            long updated = results.stream().filter(r -> Boolean.TRUE.equals(r.get("success"))).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("updated", updated);
+            response.put("failed", results.size() - updated);
+            response.put("results", results);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<String> updateApplicationStatusLegacy(@PathVariable Long id,
                                                                 @RequestBody ApplicationStatusRequest request,
@@ -150,9 +187,7 @@ public class ApplicationController {
     public ResponseEntity<Map<String, Boolean>> checkIfApplied(@PathVariable Long jobId, Authentication auth) {
         try {
             String email = auth.getName();
-            List<Candidature> applications = applicationService.getCandidateApplications(email);
-            boolean hasApplied = applications.stream()
-                    .anyMatch(app -> app.getOffre().getIdOffre().equals(jobId));
+            boolean hasApplied = applicationService.hasApplied(email, jobId);
 
             Map<String, Boolean> response = new HashMap<>();
             response.put("hasApplied", hasApplied);
@@ -162,6 +197,22 @@ public class ApplicationController {
         }
     }
 
+    // variante par lot : /candidate/check?jobIds=1,2,3 -> offres de la liste déjà postulées
+    @GetMapping("/candidate/check")
+    public ResponseEntity<Map<String, Object>> checkIfAppliedBatch(@RequestParam List<Long> jobIds, Authentication auth) {
+        if (jobIds.size() > 200) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            String email = auth.getName();
+            Map<String, Object> response = new HashMap<>();
+            response.put("appliedJobIds", applicationService.getAppliedJobIds(email, jobIds));
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> withdrawApplication(@PathVariable Long id, Authentication auth) {
         try {
@@ -174,46 +225,40 @@ public class ApplicationController {
     }
 
     // endpoint : candidatures triées par score (employeur)
+    // pagination par clé optionnelle : afterScore / afterId = score et id de la dernière ligne reçue
     @GetMapping("/job/{jobId}/sorted")
-    public ResponseEntity<List<Map<String, Object>>> getCandidaturesSortedByScore(@PathVariable Long jobId) {
-        List<Candidature> candidatures = applicationService.getCandidaturesByOffreOrderByScore(jobId);
-        List<Map<String, Object>> result = candidatures.stream().map(c -> {
-            Map<String, Object> dto = new HashMap<>();
-            dto.put("id", c.getId());
-            dto.put("datePostulation", c.getDatePostulation());
-            dto.put("etat", c.getEtat());
-            dto.put("matchingScore", c.getScore());
-            dto.put("candidatNom", c.getCandidat().getNom());
-            dto.put("candidatPrenom", c.getCandidat().getPrenom());
-            dto.put("candidatEmail", c.getCandidat().getEmail());
-            dto.put("lettreMotivation", c.getLettreMotivation());
+    public ResponseEntity<List<CandidatureTrieeDTO>> getCandidaturesSortedByScore(
+            @PathVariable Long jobId,
+            @RequestParam(required = false) BigDecimal afterScore,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit) {
+        Integer limite = limit != null ? Math.max(1, Math.min(limit, 1000)) : null;
+        return ResponseEntity.ok(applicationService.getCandidaturesByOffreOrderByScore(jobId, afterScore, afterId, limite));
+    }
 
-            Map<String, Object> candidatInfo = new HashMap<>();
-            candidatInfo.put("id", c.getCandidat().getId());
-            candidatInfo.put("nom", c.getCandidat().getNom());
-            candidatInfo.put("prenom", c.getCandidat().getPrenom());
-            candidatInfo.put("email", c.getCandidat().getEmail());
-            candidatInfo.put("cin", c.getCandidat().getCin());
-            candidatInfo.put("fonctionActuelle", c.getCandidat().getFonctionActuelle());
-            candidatInfo.put("cvPath", c.getCandidat().getCvPath());
-            dto.put("candidat", candidatInfo);
+    // endpoint : recalcul de tous les scores, lancé en arrière-plan
+    @PostMapping("/recalculate-scores")
+    public ResponseEntity<Map<String, Object>> recalculateScores() {
+        JobRecalcul job = recalculScoresService.demarrer();
+        return ResponseEntity.accepted().body(recalculScoresService.decrire(job));
+    }
 
-            Map<String, Object> offreInfo = new HashMap<>();
-            offreInfo.put("idOffre", c.getOffre().getIdOffre());
-            offreInfo.put("titre", c.getOffre().getTitre());
-            offreInfo.put("localisation", c.getOffre().getLocalisation());
-            dto.put("offre", offreInfo);
-
-            return dto;
-        }).collect(Collectors.toList());
-        return ResponseEntity.ok(result);
+    @GetMapping("/recalculate-scores/{jobId}")
+    public ResponseEntity<?> getRecalculateScoresProgress(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(recalculScoresService.decrire(recalculScoresService.getJob(jobId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
-    // endpoint : recalcul de tous les scores
-    @PostMapping("/recalculate-scores")
-    public ResponseEntity<String> recalculateScores() {
-        applicationService.recalculateAllScores();
-        return ResponseEntity.ok("Scores recalculés avec succès");
+    @DeleteMapping("/recalculate-scores/{jobId}")
+    public ResponseEntity<?> cancelRecalculateScores(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(recalculScoresService.decrire(recalculScoresService.annuler(jobId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
 
@@ -1,15 +1,28 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.AvecEtag;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.JobRequest;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreEmployeurDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreResumeDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.SuggestionDTO;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.JobService;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/jobs")
@@ -19,31 +32,84 @@ public class JobController {
     @Autowired
     private JobService jobService;
 
+    @Value("${offre.suggestions.taille:10}")
+    private int suggestionsMax;
+
 
     @GetMapping
     public ResponseEntity<?> getJobs(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String title,
-            @RequestParam(required = false) String location
+            @RequestParam(required = false) String location,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        Page<Offre> jobs = jobService.getJobs(page, size, title, location);
-        return ResponseEntity.ok(jobs);
+        // la taille fait partie de la clé du cache des pages : bornée comme /active/page
+        int taille = Math.max(1, Math.min(size, 100));
+        int numero = Math.max(0, page);
+        return avecEtag(ifNoneMatch, jobService.etagJobs(numero, taille, title, location),
+                () -> jobService.getJobs(numero, taille, title, location));
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<Offre>> getAllActiveJobs() {
-        List<Offre> offres = jobService.getAllActiveJobs();
-        return ResponseEntity.ok(offres);
+    public ResponseEntity<List<OffreResumeDTO>> getAllActiveJobs(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return avecEtag(ifNoneMatch, jobService.etagActiveJobs(), jobService::getAllActiveJobs);
+    }
+
+    // offres actives par tranches : reprendre avec afterDate/afterId = datePublication/idOffre de la dernière reçue
+    @GetMapping("/active/page")
+    public ResponseEntity<List<OffreResumeDTO>> getActiveJobsPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate afterDate,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int limit) {
+        int limite = Math.max(1, Math.min(limit, 500));
+        return ResponseEntity.ok(jobService.getActiveJobsApres(since, afterDate, afterId, limite));
+    }
+
+    // export complet en NDJSON, écrit au fil de la lecture
+    @GetMapping(value = "/active/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActiveJobs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
+        StreamingResponseBody corps = sortie -> jobService.exporterOffresActives(since, sortie);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corps);
+    }
+
+    // suggestions de saisie (field = title ou location), servies depuis la mémoire ; q vide : les plus fréquentes
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggestJobs(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "title") String field,
+            @RequestParam(defaultValue = "8") int limit) {
+        int limite = Math.max(1, Math.min(limit, suggestionsMax));
+        List<SuggestionDTO> suggestions;
+        switch (field) {
+            case "title":
+                suggestions = jobService.suggererTitres(q, limite);
+                break;
+            case "location":
+                suggestions = jobService.suggererLocalisations(q, limite);
+                break;
+            default:
+                return ResponseEntity.badRequest().build();
+        }
+        // le navigateur réutilise la réponse quand l'utilisateur efface puis retape un préfixe
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(30)))
+                .body(suggestions);
     }
 
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<Offre> getJobById(@PathVariable Long id) {
+    public ResponseEntity<OffreResumeDTO> getJobById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            Offre job = jobService.getJobById(id);
-            return ResponseEntity.ok(job);
+            return avecEtag(ifNoneMatch, jobService.etagJobById(id), () -> jobService.getJobById(id));
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -83,13 +149,40 @@ public class JobController {
     }
 
     @GetMapping("/employer")
-    public ResponseEntity<List<Offre>> getEmployerJobs(Authentication auth) {
+    public ResponseEntity<List<OffreEmployeurDTO>> getEmployerJobs(Authentication auth) {
         try {
             String email = auth.getName();
-            List<Offre> jobs = jobService.getEmployerJobs(email);
+            List<OffreEmployeurDTO> jobs = jobService.getEmployerJobs(email);
             return ResponseEntity.ok(jobs);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    // ETag courant connu sans charger : 304 avant toute requête ; sinon chargement (ou cache) et réponse complète
+    private static <T> ResponseEntity<T> avecEtag(String ifNoneMatch, String etag, Supplier<AvecEtag<T>> chargement) {
+        if (ifNoneMatch != null) {
+            for (String candidat : ifNoneMatch.split(",")) {
+                String valeur = candidat.trim();
+                // comparaison faible pour If-None-Match
+                if (valeur.startsWith("W/")) valeur = valeur.substring(2);
+                if (valeur.equals(etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag(etag)
+                            .cacheControl(CacheControl.noCache())
+                            .build();
+                }
+            }
+        }
+        return avecEtag(chargement.get());
+    }
+
+    // If-None-Match égal à l'ETag : 304 sans sérialiser le corps (HttpEntityMethodProcessor)
+    // no-cache : le navigateur garde la réponse mais revalide à chaque fois
+    private static <T> ResponseEntity<T> avecEtag(AvecEtag<T> reponse) {
+        return ResponseEntity.ok()
+                .eTag(reponse.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(reponse.contenu());
+    }
 }
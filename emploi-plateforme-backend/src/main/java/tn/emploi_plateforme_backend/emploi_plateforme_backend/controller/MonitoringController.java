@@ -0,0 +1,160 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.ClassementCandidaturesCache;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.CompteurCandidaturesService;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.CvTextCache;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.ExpirationOffresService;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.MatchingCircuitBreaker;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.MatchingService;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.OffreRechercheIndex;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.OffreSkillIndex;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.OffresPubliquesCache;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.ScoreBackfillService;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.ScoreMemoService;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.ScoringQueueWorker;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.SuggestionsOffresIndex;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/monitoring")
+@CrossOrigin(origins = "http://localhost:3000")
+public class MonitoringController {
+
+    @Autowired
+    private CvTextCache cvTextCache;
+
+    @Autowired
+    private OffreSkillIndex offreSkillIndex;
+
+    @Autowired
+    private ScoreMemoService scoreMemoService;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private MatchingCircuitBreaker matchingCircuitBreaker;
+
+    @Autowired
+    private ScoreBackfillService scoreBackfillService;
+
+    @Autowired
+    private ScoringQueueWorker scoringQueueWorker;
+
+    @Autowired
+    private ClassementCandidaturesCache classementCandidaturesCache;
+
+    @Autowired
+    private CompteurCandidaturesService compteurCandidaturesService;
+
+    @Autowired
+    private OffreRechercheIndex offreRechercheIndex;
+
+    @Autowired
+    private OffresPubliquesCache offresPubliquesCache;
+
+    @Autowired
+    private ExpirationOffresService expirationOffresService;
+
+    @Autowired
+    private SuggestionsOffresIndex suggestionsOffresIndex;
+
+    @GetMapping("/cv-cache")
+    public ResponseEntity<Map<String, Object>> getCvCacheStats() {
+        return ResponseEntity.ok(cvTextCache.getStats());
+    }
+
+    @GetMapping("/offre-index")
+    public ResponseEntity<Map<String, Object>> getOffreIndexStats() {
+        return ResponseEntity.ok(offreSkillIndex.getStats());
+    }
+
+    @GetMapping("/score-memo")
+    public ResponseEntity<Map<String, Object>> getScoreMemoStats() {
+        return ResponseEntity.ok(scoreMemoService.getStats());
+    }
+
+    // à lancer une fois tous les nœuds passés à la version courante du modèle
+    @PostMapping("/score-memo/purger-autres-versions")
+    public ResponseEntity<Map<String, Object>> purgerAutresVersionsScoreMemo() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("supprimes", scoreMemoService.purgerAutresVersions());
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/matching-pool")
+    public ResponseEntity<Map<String, Object>> getMatchingPoolStats() {
+        return ResponseEntity.ok(matchingService.getPoolStats());
+    }
+
+    @GetMapping("/matching-circuit")
+    public ResponseEntity<Map<String, Object>> getMatchingCircuitStats() {
+        Map<String, Object> stats = matchingCircuitBreaker.getStats();
+        stats.put("scoresEnAttente", scoreBackfillService.compterEnAttente());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/scoring-queue")
+    public ResponseEntity<Map<String, Object>> getScoringQueueStats() {
+        return ResponseEntity.ok(scoringQueueWorker.getStats());
+    }
+
+    @GetMapping("/classement-candidatures")
+    public ResponseEntity<Map<String, Object>> getClassementCandidaturesStats() {
+        return ResponseEntity.ok(classementCandidaturesCache.getStats());
+    }
+
+    @GetMapping("/compteurs-candidatures")
+    public ResponseEntity<Map<String, Object>> getCompteursCandidaturesStats() {
+        return ResponseEntity.ok(compteurCandidaturesService.getStats());
+    }
+
+    @GetMapping("/recherche-offres")
+    public ResponseEntity<Map<String, Object>> getRechercheOffresStats() {
+        return ResponseEntity.ok(offreRechercheIndex.getStats());
+    }
+
+    @GetMapping("/offres-publiques")
+    public ResponseEntity<Map<String, Object>> getOffresPubliquesStats() {
+        return ResponseEntity.ok(offresPubliquesCache.getStats());
+    }
+
+    @GetMapping("/expiration-offres")
+    public ResponseEntity<Map<String, Object>> getExpirationOffresStats() {
+        return ResponseEntity.ok(expirationOffresService.getStats());
+    }
+
+    @GetMapping("/suggestions-offres")
+    public ResponseEntity<Map<String, Object>> getSuggestionsOffresStats() {
+        return ResponseEntity.ok(suggestionsOffresIndex.getStats());
+    }
+
+    // passage immédiat, sans attendre le prochain déclenchement
+    @PostMapping("/expiration-offres/executer")
+    public ResponseEntity<Map<String, Object>> executerExpirationOffres() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("expirees", expirationOffresService.executer());
+        return ResponseEntity.ok(result);
+    }
+
+    // reconstruction complète de l'index de recherche depuis la base
+    @PostMapping("/recherche-offres/reconstruire")
+    public ResponseEntity<Map<String, Object>> reconstruireRechercheOffres() {
+        offreRechercheIndex.reconstruire();
+        offresPubliquesCache.invaliderTout();
+        return ResponseEntity.ok(offreRechercheIndex.getStats());
+    }
+
+    // recomptage immédiat, sans attendre le passage planifié
+    @PostMapping("/compteurs-candidatures/reconcilier")
+    public ResponseEntity<Map<String, Object>> reconcilierCompteursCandidatures() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("corrigees", compteurCandidaturesService.reconcilier());
+        return ResponseEntity.ok(result);
+    }
+}
@@ -15,6 +15,7 @@ import tn.emploi_plateforme_backend.emploi_plateforme_backend.service.ProfileSer
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/profile")
@@ -70,6 +71,16 @@ public class ProfileController {
         }
     }
 
+    @GetMapping("/cv/status")
+    public ResponseEntity<Map<String, Object>> getCVStatus(Authentication auth) {
+        try {
+            String email = auth.getName();
+            return ResponseEntity.ok(profileService.getCVStatus(email));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/cv")
     public ResponseEntity<String> deleteCV(Authentication auth) {
         try {
@@ -35,14 +35,10 @@ public class RecommandationController {
             @PathVariable Long candidatId,
             @PathVariable int limit) {
         try {
-            List<OffreRecommandationDTO> recommandations = recommandationService.getRecommendedOffersForCandidat(candidatId);
-
+            List<OffreRecommandationDTO> recommandations = recommandationService.getRecommendedOffersForCandidat(
+                    candidatId, Math.max(1, Math.min(limit, 20)));
 
-            List<OffreRecommandationDTO> limitedRecommandations = recommandations.stream()
-                    .limit(Math.max(1, Math.min(limit, 20)))
-                    .collect(java.util.stream.Collectors.toList());
-
-            return ResponseEntity.ok(limitedRecommandations);
+            return ResponseEntity.ok(recommandations);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
@@ -0,0 +1,15 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
+
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Decision;
+
+// élément d'une mise à jour de statut par lot
+public class ApplicationDecisionItem {
+    private Long applicationId;
+    private Decision status;
+
+    public Long getApplicationId() { return applicationId; }
+    public void setApplicationId(Long applicationId) { this.applicationId = applicationId; }
+
+    public Decision getStatus() { return status; }
+    public void setStatus(Decision status) { this.status = status; }
+}
@@ -0,0 +1,12 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
+
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.util.TexteUtils;
+
+// réponse publique et son ETag fort, gardés ensemble en cache
+// l'ETag vient des compteurs de version du cache (OffresPubliquesCache), lus avant le chargement
+public record AvecEtag<T>(T contenu, String etag) {
+
+    public static String etiqueter(String signature) {
+        return "\"" + TexteUtils.empreinte(signature).substring(0, 32) + "\"";
+    }
+}
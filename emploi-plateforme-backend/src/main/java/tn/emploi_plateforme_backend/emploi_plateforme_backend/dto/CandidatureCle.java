@@ -0,0 +1,5 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
+
+// projection légère d'une candidature pour le parcours par clé (candidat_id, id)
+public record CandidatureCle(Long id, Long candidatId, Long offreId) {
+}
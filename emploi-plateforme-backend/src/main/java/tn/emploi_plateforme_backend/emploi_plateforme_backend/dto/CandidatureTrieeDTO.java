@@ -0,0 +1,111 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
+
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidature;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutCandidature;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutScore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// ligne de la liste des candidatures triées par score, remplie par une seule requête (projection JPQL)
+public class CandidatureTrieeDTO {
+
+    private static final BigDecimal SCORE_EN_ATTENTE = BigDecimal.valueOf(-1);
+
+    // même ordre que findTrieesParScore : score décroissant (en attente en dernier), puis id
+    public static final Comparator<CandidatureTrieeDTO> ORDRE = Comparator
+            .comparing((CandidatureTrieeDTO c) -> c.score != null ? c.score : SCORE_EN_ATTENTE, Comparator.reverseOrder())
+            .thenComparing(c -> c.id);
+
+    private final Long id;
+    private final LocalDateTime datePostulation;
+    private final StatutCandidature etat;
+    private final BigDecimal score;
+    private final StatutScore statutScore;
+    private final String lettreMotivation;
+
+    private final Long candidatId;
+    private final String nom;
+    private final String prenom;
+    private final String email;
+    private final String cin;
+    private final String fonctionActuelle;
+    private final String cvPath;
+
+    private final Long offreId;
+    private final String titre;
+    private final String localisation;
+
+    public CandidatureTrieeDTO(Long id, LocalDateTime datePostulation, StatutCandidature etat, BigDecimal score,
+                               StatutScore statutScore, String lettreMotivation,
+                               Long candidatId, String nom, String prenom, String email, String cin,
+                               String fonctionActuelle, String cvPath,
+                               Long offreId, String titre, String localisation) {
+        this.id = id;
+        this.datePostulation = datePostulation;
+        this.etat = etat;
+        this.score = score;
+        this.statutScore = statutScore;
+        this.lettreMotivation = lettreMotivation;
+        this.candidatId = candidatId;
+        this.nom = nom;
+        this.prenom = prenom;
+        this.email = email;
+        this.cin = cin;
+        this.fonctionActuelle = fonctionActuelle;
+        this.cvPath = cvPath;
+        this.offreId = offreId;
+        this.titre = titre;
+        this.localisation = localisation;
+    }
+
+    public static CandidatureTrieeDTO depuis(Candidature candidature) {
+        Candidat candidat = candidature.getCandidat();
+        Offre offre = candidature.getOffre();
+        return new CandidatureTrieeDTO(candidature.getId(), candidature.getDatePostulation(), candidature.getEtat(),
+                candidature.getScore(), candidature.getStatutScore(), candidature.getLettreMotivation(),
+                candidat.getId(), candidat.getNom(), candidat.getPrenom(), candidat.getEmail(), candidat.getCin(),
+                candidat.getFonctionActuelle(), candidat.getCvPath(),
+                offre.getIdOffre(), offre.getTitre(), offre.getLocalisation());
+    }
+
+    // hors JSON (pas de préfixe get) : utilisés par le classement en mémoire
+    public Long candidatId() { return candidatId; }
+    public Long offreId() { return offreId; }
+
+    public Long getId() { return id; }
+    public LocalDateTime getDatePostulation() { return datePostulation; }
+    public StatutCandidature getEtat() { return etat; }
+    public BigDecimal getMatchingScore() { return score; }
+    public StatutScore getStatutScore() { return statutScore; }
+    public String getLettreMotivation() { return lettreMotivation; }
+
+    public String getCandidatNom() { return nom; }
+    public String getCandidatPrenom() { return prenom; }
+    public String getCandidatEmail() { return email; }
+
+    public Map<String, Object> getCandidat() {
+        Map<String, Object> candidat = new LinkedHashMap<>();
+        candidat.put("id", candidatId);
+        candidat.put("nom", nom);
+        candidat.put("prenom", prenom);
+        candidat.put("email", email);
+        candidat.put("cin", cin);
+        candidat.put("fonctionActuelle", fonctionActuelle);
+        candidat.put("cvPath", cvPath);
+        return candidat;
+    }
+
+    public Map<String, Object> getOffre() {
+        Map<String, Object> offre = new LinkedHashMap<>();
+        offre.put("idOffre", offreId);
+        offre.put("titre", titre);
+        offre.put("localisation", localisation);
+        return offre;
+    }
+}
@@ -0,0 +1,40 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// offre de la liste employeur : même JSON que l'offre, plus ses compteurs de candidatures
+public class OffreEmployeurDTO {
+    @JsonUnwrapped
+    private final OffreResumeDTO offre;
+    private final long enAttente;
+    private final long acceptees;
+    private final long refusees;
+
+    // compteurs null : pas de ligne de compteur, aucune candidature
+    public OffreEmployeurDTO(Long idOffre, String titre, String description, String localisation,
+                             LocalDate datePublication, LocalDate dateExpiration, StatutOffre etat,
+                             Long employeurId, String nomEntreprise,
+                             Long enAttente, Long acceptees, Long refusees) {
+        this.offre = new OffreResumeDTO(idOffre, titre, description, localisation, datePublication, dateExpiration,
+                etat, employeurId, nomEntreprise);
+        this.enAttente = enAttente != null ? enAttente : 0L;
+        this.acceptees = acceptees != null ? acceptees : 0L;
+        this.refusees = refusees != null ? refusees : 0L;
+    }
+
+    public OffreResumeDTO getOffre() { return offre; }
+
+    public Map<String, Long> getNbCandidatures() {
+        Map<String, Long> nb = new LinkedHashMap<>();
+        nb.put("enAttente", enAttente);
+        nb.put("acceptees", acceptees);
+        nb.put("refusees", refusees);
+        nb.put("total", enAttente + acceptees + refusees);
+        return nb;
+    }
+}
@@ -1,9 +1,12 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
 
+import java.time.LocalDateTime;
+
 public class OffreRecommandationDTO {
     private JobRequest offre;
     private Double score;
     private String compatibiliteLevel;
+    private LocalDateTime dateCalcul;
 
     public OffreRecommandationDTO() {}
 
@@ -50,6 +53,14 @@ public class OffreRecommandationDTO {
         this.compatibiliteLevel = compatibiliteLevel;
     }
 
+    public LocalDateTime getDateCalcul() {
+        return dateCalcul;
+    }
+
+    public void setDateCalcul(LocalDateTime dateCalcul) {
+        this.dateCalcul = dateCalcul;
+    }
+
 
     public Integer getScorePercentage() {
         if (score == null) return 0;
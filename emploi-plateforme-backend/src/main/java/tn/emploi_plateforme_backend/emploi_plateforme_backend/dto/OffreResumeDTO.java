@@ -0,0 +1,52 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
+
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// offre telle qu'affichée dans les listes et le détail, remplie par projection JPQL (colonnes affichées seulement)
+// même JSON que l'entité pour ces champs ; l'employeur est réduit à son id et au nom de l'entreprise
+public class OffreResumeDTO {
+
+    private final Long idOffre;
+    private final String titre;
+    private final String description;
+    private final String localisation;
+    private final LocalDate datePublication;
+    private final LocalDate dateExpiration;
+    private final StatutOffre etat;
+
+    private final Long employeurId;
+    private final String nomEntreprise;
+
+    public OffreResumeDTO(Long idOffre, String titre, String description, String localisation,
+                          LocalDate datePublication, LocalDate dateExpiration, StatutOffre etat,
+                          Long employeurId, String nomEntreprise) {
+        this.idOffre = idOffre;
+        this.titre = titre;
+        this.description = description;
+        this.localisation = localisation;
+        this.datePublication = datePublication;
+        this.dateExpiration = dateExpiration;
+        this.etat = etat;
+        this.employeurId = employeurId;
+        this.nomEntreprise = nomEntreprise;
+    }
+
+    public Long getIdOffre() { return idOffre; }
+    public String getTitre() { return titre; }
+    public String getDescription() { return description; }
+    public String getLocalisation() { return localisation; }
+    public LocalDate getDatePublication() { return datePublication; }
+    public LocalDate getDateExpiration() { return dateExpiration; }
+    public StatutOffre getEtat() { return etat; }
+
+    public Map<String, Object> getEmployeur() {
+        Map<String, Object> employeur = new LinkedHashMap<>();
+        employeur.put("id", employeurId);
+        employeur.put("nomEntreprise", nomEntreprise);
+        return employeur;
+    }
+}
@@ -0,0 +1,5 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.dto;
+
+// suggestion de saisie : titre ou localisation tel qu'affiché, avec le nombre d'offres actives qui le portent
+public record SuggestionDTO(String texte, int nbOffres) {
+}
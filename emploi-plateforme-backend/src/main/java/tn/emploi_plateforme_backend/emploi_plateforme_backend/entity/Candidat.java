@@ -21,6 +21,12 @@ public class Candidat extends Utilisateur {
     @Column
     private LocalDateTime cvUploadDate;
 
+    @Enumerated(EnumType.STRING)
+    private StatutExtractionCv cvStatutExtraction;
+
+    @Column
+    private LocalDateTime cvDateExtraction;
+
     @OneToMany(mappedBy = "candidat", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<Candidature> candidatures;
@@ -50,4 +56,20 @@ public class Candidat extends Utilisateur {
     public void setCvUploadDate(LocalDateTime cvUploadDate) {
         this.cvUploadDate = cvUploadDate;
     }
+
+    public StatutExtractionCv getCvStatutExtraction() {
+        return cvStatutExtraction;
+    }
+
+    public void setCvStatutExtraction(StatutExtractionCv cvStatutExtraction) {
+        this.cvStatutExtraction = cvStatutExtraction;
+    }
+
+    public LocalDateTime getCvDateExtraction() {
+        return cvDateExtraction;
+    }
+
+    public void setCvDateExtraction(LocalDateTime cvDateExtraction) {
+        this.cvDateExtraction = cvDateExtraction;
+    }
 }
\ No newline at end of file
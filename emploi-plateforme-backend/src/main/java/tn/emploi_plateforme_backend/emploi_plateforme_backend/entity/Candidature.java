@@ -7,6 +7,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_candidature_candidat_offre", columnNames = {"candidat_id", "offre_id"}),
+        indexes = {
+                @Index(name = "idx_candidature_score_perime", columnList = "score_perime"),
+                @Index(name = "idx_candidature_offre_score", columnList = "offre_id, score")
+        })
 public class Candidature {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,6 +33,25 @@ public class Candidature {
     @Column(precision = 5, scale = 4)
     private BigDecimal score = BigDecimal.ZERO;
 
+    // EN_ATTENTE : service de matching indisponible à la candidature, score null jusqu'au rattrapage
+    // SANS_CV : rien à scorer, score null
+    @Enumerated(EnumType.STRING)
+    private StatutScore statutScore;
+
+    // contenus à partir desquels le score a été calculé
+    @Column(length = 64)
+    private String scoreCvHash;
+
+    @Column(length = 64)
+    private String scoreOffreHash;
+
+    @Column(length = 32)
+    private String scoreVersionModele;
+
+    // CV ou offre modifié depuis le calcul : à rescorer
+    @Column(name = "score_perime")
+    private Boolean scorePerime = false;
+
 
     @ManyToOne
     @JoinColumn(name = "candidat_id", nullable = false)
@@ -83,4 +107,44 @@ public class Candidature {
     public void setScore(BigDecimal score) {
         this.score = score;
     }
-}
\ No newline at end of file
+
+    public StatutScore getStatutScore() {
+        return statutScore;
+    }
+
+    public void setStatutScore(StatutScore statutScore) {
+        this.statutScore = statutScore;
+    }
+
+    public String getScoreCvHash() {
+        return scoreCvHash;
+    }
+
+    public void setScoreCvHash(String scoreCvHash) {
+        this.scoreCvHash = scoreCvHash;
+    }
+
+    public String getScoreOffreHash() {
+        return scoreOffreHash;
+    }
+
+    public void setScoreOffreHash(String scoreOffreHash) {
+        this.scoreOffreHash = scoreOffreHash;
+    }
+
+    public String getScoreVersionModele() {
+        return scoreVersionModele;
+    }
+
+    public void setScoreVersionModele(String scoreVersionModele) {
+        this.scoreVersionModele = scoreVersionModele;
+    }
+
+    public Boolean getScorePerime() {
+        return scorePerime;
+    }
+
+    public void setScorePerime(Boolean scorePerime) {
+        this.scorePerime = scorePerime;
+    }
+}
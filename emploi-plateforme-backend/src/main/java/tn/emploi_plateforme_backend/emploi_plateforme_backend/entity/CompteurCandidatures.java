@@ -0,0 +1,32 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// nombre de candidatures d'une offre par état ; écrit en SQL par CompteurCandidaturesService
+@Entity
+@Table(name = "compteur_candidatures")
+public class CompteurCandidatures {
+    @Id
+    @Column(name = "offre_id")
+    private Long offreId;
+
+    @Column(nullable = false)
+    private long enAttente;
+
+    @Column(nullable = false)
+    private long acceptees;
+
+    @Column(nullable = false)
+    private long refusees;
+
+    private LocalDateTime dateMaj;
+
+    public Long getOffreId() { return offreId; }
+    public long getEnAttente() { return enAttente; }
+    public long getAcceptees() { return acceptees; }
+    public long getRefusees() { return refusees; }
+    public long getTotal() { return enAttente + acceptees + refusees; }
+    public LocalDateTime getDateMaj() { return dateMaj; }
+}
@@ -0,0 +1,35 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// texte normalisé du CV, stocké à part pour ne pas alourdir le chargement de Candidat
+@Entity
+public class CvExtrait {
+    @Id
+    private Long candidatId;
+
+    @Column(length = 500, nullable = false)
+    private String cvPath;
+
+    @Lob
+    @Column(columnDefinition = "LONGTEXT", nullable = false)
+    private String texte;
+
+    @Column(nullable = false)
+    private LocalDateTime dateExtraction;
+
+
+    public Long getCandidatId() { return candidatId; }
+    public void setCandidatId(Long candidatId) { this.candidatId = candidatId; }
+
+    public String getCvPath() { return cvPath; }
+    public void setCvPath(String cvPath) { this.cvPath = cvPath; }
+
+    public String getTexte() { return texte; }
+    public void setTexte(String texte) { this.texte = texte; }
+
+    public LocalDateTime getDateExtraction() { return dateExtraction; }
+    public void setDateExtraction(LocalDateTime dateExtraction) { this.dateExtraction = dateExtraction; }
+}
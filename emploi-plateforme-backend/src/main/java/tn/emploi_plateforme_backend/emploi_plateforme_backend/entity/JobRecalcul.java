@@ -0,0 +1,78 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// recalcul des scores en arrière-plan, avec point de reprise (candidat_id, id) de la dernière candidature traitée
+@Entity
+@Table(name = "job_recalcul")
+public class JobRecalcul {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatutJob statut;
+
+    private long total;
+    private long traitees;
+    private long misesAJour;
+
+    private Long dernierCandidatId;
+    private Long derniereCandidatureId;
+
+    @Column(nullable = false)
+    private LocalDateTime dateDebut;
+
+    // début de l'exécution courante (différent de dateDebut après une reprise), pour l'estimation
+    private LocalDateTime dateReprise;
+    private long traiteesALaReprise;
+
+    private LocalDateTime dateMaj;
+    private LocalDateTime dateFin;
+
+    @Column(length = 500)
+    private String erreur;
+
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public StatutJob getStatut() { return statut; }
+    public void setStatut(StatutJob statut) { this.statut = statut; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public long getTraitees() { return traitees; }
+    public void setTraitees(long traitees) { this.traitees = traitees; }
+
+    public long getMisesAJour() { return misesAJour; }
+    public void setMisesAJour(long misesAJour) { this.misesAJour = misesAJour; }
+
+    public Long getDernierCandidatId() { return dernierCandidatId; }
+    public void setDernierCandidatId(Long dernierCandidatId) { this.dernierCandidatId = dernierCandidatId; }
+
+    public Long getDerniereCandidatureId() { return derniereCandidatureId; }
+    public void setDerniereCandidatureId(Long derniereCandidatureId) { this.derniereCandidatureId = derniereCandidatureId; }
+
+    public LocalDateTime getDateDebut() { return dateDebut; }
+    public void setDateDebut(LocalDateTime dateDebut) { this.dateDebut = dateDebut; }
+
+    public LocalDateTime getDateReprise() { return dateReprise; }
+    public void setDateReprise(LocalDateTime dateReprise) { this.dateReprise = dateReprise; }
+
+    public long getTraiteesALaReprise() { return traiteesALaReprise; }
+    public void setTraiteesALaReprise(long traiteesALaReprise) { this.traiteesALaReprise = traiteesALaReprise; }
+
+    public LocalDateTime getDateMaj() { return dateMaj; }
+    public void setDateMaj(LocalDateTime dateMaj) { this.dateMaj = dateMaj; }
+
+    public LocalDateTime getDateFin() { return dateFin; }
+    public void setDateFin(LocalDateTime dateFin) { this.dateFin = dateFin; }
+
+    public String getErreur() { return erreur; }
+    public void setErreur(String erreur) { this.erreur = erreur; }
+}
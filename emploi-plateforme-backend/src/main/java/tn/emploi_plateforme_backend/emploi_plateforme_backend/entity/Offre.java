@@ -2,11 +2,17 @@ package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Employeur;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_offre_etat_date_publication", columnList = "etat, date_publication"),
+        @Index(name = "idx_offre_etat_date_expiration", columnList = "etat, date_expiration"),
+        @Index(name = "idx_offre_etat_expiree_le", columnList = "etat, expiree_le")
+})
 public class Offre {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +36,15 @@ public class Offre {
     @Enumerated(EnumType.STRING)
     private StatutOffre etat;
 
+    // incrémentée à chaque modification, y compris l'expiration planifiée
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    // renseigné par l'expiration planifiée
+    @JsonIgnore
+    private LocalDateTime expireeLe;
+
     @ManyToOne
     @JoinColumn(name = "employeur_id", nullable = false)
     private Employeur employeur;
@@ -68,6 +83,12 @@ public class Offre {
     public StatutOffre getEtat() { return etat; }
     public void setEtat(StatutOffre etat) { this.etat = etat; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getExpireeLe() { return expireeLe; }
+    public void setExpireeLe(LocalDateTime expireeLe) { this.expireeLe = expireeLe; }
+
     public Employeur getEmployeur() { return employeur; }
     public void setEmployeur(Employeur employeur) { this.employeur = employeur; }
 
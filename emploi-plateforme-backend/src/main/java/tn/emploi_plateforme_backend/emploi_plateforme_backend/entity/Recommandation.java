@@ -0,0 +1,58 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// score précalculé candidat -> offre, maintenu par RecommandationIndexService
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(columnNames = {"candidat_id", "offre_id"}),
+        indexes = {
+                @Index(name = "idx_recommandation_candidat_score", columnList = "candidat_id, score"),
+                @Index(name = "idx_recommandation_offre", columnList = "offre_id")
+        }
+)
+public class Recommandation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "candidat_id", nullable = false)
+    private Long candidatId;
+
+    @Column(name = "offre_id", nullable = false)
+    private Long offreId;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCalcul;
+
+    public Recommandation() {
+    }
+
+    public Recommandation(Long candidatId, Long offreId, Double score) {
+        this.candidatId = candidatId;
+        this.offreId = offreId;
+        this.score = score;
+        this.dateCalcul = LocalDateTime.now();
+    }
+
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCandidatId() { return candidatId; }
+    public void setCandidatId(Long candidatId) { this.candidatId = candidatId; }
+
+    public Long getOffreId() { return offreId; }
+    public void setOffreId(Long offreId) { this.offreId = offreId; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public LocalDateTime getDateCalcul() { return dateCalcul; }
+    public void setDateCalcul(LocalDateTime dateCalcul) { this.dateCalcul = dateCalcul; }
+}
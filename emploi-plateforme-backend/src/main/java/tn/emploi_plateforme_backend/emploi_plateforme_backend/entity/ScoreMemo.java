@@ -0,0 +1,53 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// score déjà calculé pour un couple (texte CV, texte offre) et une version du modèle
+@Entity
+@Table(
+        name = "score_memo",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_score_memo",
+                columnNames = {"cv_hash", "offre_hash", "version_modele"})
+)
+public class ScoreMemo {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cv_hash", nullable = false, length = 64)
+    private String cvHash;
+
+    @Column(name = "offre_hash", nullable = false, length = 64)
+    private String offreHash;
+
+    @Column(name = "version_modele", nullable = false, length = 32)
+    private String versionModele;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCalcul;
+
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCvHash() { return cvHash; }
+    public void setCvHash(String cvHash) { this.cvHash = cvHash; }
+
+    public String getOffreHash() { return offreHash; }
+    public void setOffreHash(String offreHash) { this.offreHash = offreHash; }
+
+    public String getVersionModele() { return versionModele; }
+    public void setVersionModele(String versionModele) { this.versionModele = versionModele; }
+
+    public Double getScore() { return score; }
+    public void setScore(Double score) { this.score = score; }
+
+    public LocalDateTime getDateCalcul() { return dateCalcul; }
+    public void setDateCalcul(LocalDateTime dateCalcul) { this.dateCalcul = dateCalcul; }
+}
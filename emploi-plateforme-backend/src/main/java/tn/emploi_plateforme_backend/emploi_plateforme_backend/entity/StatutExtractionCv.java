@@ -0,0 +1,7 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+public enum StatutExtractionCv {
+
+        EN_ATTENTE, EN_COURS, PRETE, ECHEC
+
+}
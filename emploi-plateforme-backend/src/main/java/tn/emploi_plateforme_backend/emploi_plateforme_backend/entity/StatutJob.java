@@ -0,0 +1,8 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+public enum StatutJob {
+    EN_COURS,
+    TERMINE,
+    ANNULE,
+    ECHEC
+}
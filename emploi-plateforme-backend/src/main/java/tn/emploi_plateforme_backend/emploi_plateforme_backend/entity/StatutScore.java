@@ -0,0 +1,8 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+public enum StatutScore {
+    CALCULE,
+    EN_ATTENTE,
+    // candidat sans CV : score null, recalculé au prochain dépôt de CV
+    SANS_CV
+}
@@ -0,0 +1,75 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// file durable des scores à calculer, une tâche par candidature ; supprimée une fois le score posé
+@Entity
+@Table(
+        name = "tache_scoring",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tache_scoring_candidature", columnNames = "candidature_id"),
+        indexes = @Index(name = "idx_tache_scoring_statut_essai", columnList = "statut, prochain_essai")
+)
+public class TacheScoring {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "candidature_id", nullable = false)
+    private Long candidatureId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatutTache statut;
+
+    @Column(nullable = false)
+    private int tentatives;
+
+    @Column(name = "prochain_essai", nullable = false)
+    private LocalDateTime prochainEssai;
+
+    // bail de la réservation : passé ce délai, un autre worker peut reprendre la tâche
+    private LocalDateTime verrouJusqua;
+
+    @Column(length = 500)
+    private String derniereErreur;
+
+    @Column(nullable = false)
+    private LocalDateTime dateCreation;
+
+    public TacheScoring() {
+    }
+
+    public TacheScoring(Long candidatureId) {
+        this.candidatureId = candidatureId;
+        this.statut = StatutTache.EN_ATTENTE;
+        this.dateCreation = LocalDateTime.now();
+        this.prochainEssai = this.dateCreation;
+    }
+
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getCandidatureId() { return candidatureId; }
+    public void setCandidatureId(Long candidatureId) { this.candidatureId = candidatureId; }
+
+    public StatutTache getStatut() { return statut; }
+    public void setStatut(StatutTache statut) { this.statut = statut; }
+
+    public int getTentatives() { return tentatives; }
+    public void setTentatives(int tentatives) { this.tentatives = tentatives; }
+
+    public LocalDateTime getProchainEssai() { return prochainEssai; }
+    public void setProchainEssai(LocalDateTime prochainEssai) { this.prochainEssai = prochainEssai; }
+
+    public LocalDateTime getVerrouJusqua() { return verrouJusqua; }
+    public void setVerrouJusqua(LocalDateTime verrouJusqua) { this.verrouJusqua = verrouJusqua; }
+
+    public String getDerniereErreur() { return derniereErreur; }
+    public void setDerniereErreur(String derniereErreur) { this.derniereErreur = derniereErreur; }
+
+    public LocalDateTime getDateCreation() { return dateCreation; }
+    public void setDateCreation(LocalDateTime dateCreation) { this.dateCreation = dateCreation; }
+}
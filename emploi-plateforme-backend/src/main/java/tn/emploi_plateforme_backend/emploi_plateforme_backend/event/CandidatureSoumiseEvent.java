@@ -0,0 +1,5 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.event;
+
+// publié dans la transaction de la candidature ; les écouteurs réagissent après commit
+public record CandidatureSoumiseEvent(Long candidatureId, Long candidatId, Long offreId, boolean aScorer) {
+}
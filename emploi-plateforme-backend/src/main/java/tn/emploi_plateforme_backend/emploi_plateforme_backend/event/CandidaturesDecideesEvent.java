@@ -0,0 +1,7 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.event;
+
+import java.util.Set;
+
+// publié dans la transaction d'une décision par lot ; offres dont des candidatures ont changé de statut
+public record CandidaturesDecideesEvent(Set<Long> offreIds) {
+}
@@ -0,0 +1,5 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.event;
+
+// publié quand le texte d'un CV est prêt pour le matching, ou quand le CV est supprimé
+public record CvModifieEvent(Long candidatId) {
+}
@@ -0,0 +1,6 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.event;
+
+// publié après création ou modification d'une offre
+// visibiliteModifiee : l'offre entre dans la liste des offres actives ou en sort (création, changement d'état)
+public record OffreModifieeEvent(Long offreId, boolean contenuModifie, boolean visibiliteModifiee) {
+}
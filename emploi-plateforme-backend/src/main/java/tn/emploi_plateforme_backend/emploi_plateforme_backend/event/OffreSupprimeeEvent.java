@@ -0,0 +1,4 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.event;
+
+public record OffreSupprimeeEvent(Long offreId) {
+}
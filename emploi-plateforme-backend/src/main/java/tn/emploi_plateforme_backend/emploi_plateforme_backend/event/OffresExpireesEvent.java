@@ -0,0 +1,7 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.event;
+
+import java.util.Set;
+
+// offres passées de ACTIVE à EXPIREE par l'expiration planifiée (après commit)
+public record OffresExpireesEvent(Set<Long> offreIds) {
+}
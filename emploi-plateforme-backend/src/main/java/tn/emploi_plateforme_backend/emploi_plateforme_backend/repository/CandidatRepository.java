@@ -1,9 +1,17 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutExtractionCv;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +19,22 @@ public interface CandidatRepository extends JpaRepository<Candidat, Long> {
     boolean existsByCin(String cin);
 
     Optional<Object> findByCin(String cin);
+
+    // CV uploadés dont l'extraction n'a pas abouti (ex: arrêt du serveur, file pleine) : (id, cvPath) par id croissant
+    @Query("SELECT c.id, c.cvPath FROM Candidat c WHERE c.cvPath IS NOT NULL AND " +
+            "(c.cvStatutExtraction IS NULL OR c.cvStatutExtraction IN ('EN_ATTENTE', 'EN_COURS')) " +
+            "AND c.id > :apresId ORDER BY c.id")
+    List<Object[]> findCvsAExtraire(@Param("apresId") Long apresId, Pageable pageable);
+
+    // écriture ciblée de l'extraction en arrière-plan : ne touche pas au reste du profil
+    // sans effet (0) si le CV a été remplacé ou supprimé entre-temps
+    @Modifying
+    @Query(value = "UPDATE candidat SET cv_statut_extraction = :statut, cv_date_extraction = :dateExtraction " +
+            "WHERE id = :id AND cv_path = :cvPath", nativeQuery = true)
+    int marquerExtraction(@Param("id") Long id,
+                          @Param("cvPath") String cvPath,
+                          @Param("statut") String statut,
+                          @Param("dateExtraction") LocalDateTime dateExtraction);
+
+    Page<Candidat> findByCvStatutExtraction(StatutExtractionCv statut, Pageable pageable);
 }
\ No newline at end of file
@@ -1,13 +1,24 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
 
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureCle;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureTrieeDTO;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidature;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Decision;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutCandidature;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutScore;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,12 +30,92 @@ public interface CandidatureRepository extends JpaRepository<Candidature, Long>
     boolean existsByCandidatAndOffre(Candidat candidat, Offre offre);
 
     List<Candidature> findByCandidatId(Long candidatId);
+
+    // changement d'état : ligne verrouillée jusqu'à la fin de la transaction (compteurs cohérents)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Candidature c WHERE c.id = :id")
+    Optional<Candidature> findByIdPourMiseAJour(@Param("id") Long id);
+
+    // couvert par la contrainte unique (candidat_id, offre_id)
+    @Query("SELECT c.offre.idOffre FROM Candidature c WHERE c.candidat.id = :candidatId")
+    List<Long> findOffreIdsByCandidatId(@Param("candidatId") Long candidatId);
     List<Candidature> findByOffreIdOffre(Long offreId);
 
+    List<Candidature> findByStatutScore(StatutScore statutScore, Pageable pageable);
+    long countByStatutScore(StatutScore statutScore);
+
+    @Query("SELECT c.id FROM Candidature c WHERE c.statutScore = 'EN_ATTENTE' AND NOT EXISTS " +
+            "(SELECT t.id FROM TacheScoring t WHERE t.candidatureId = c.id)")
+    List<Long> findIdsEnAttenteSansTache(Pageable pageable);
+
+    // à rescorer : marquée périmée, jamais suivie, ou calculée avec une autre version du modèle
+    String CONDITION_SCORE_PERIME = "(c.scorePerime = true OR c.scoreVersionModele IS NULL " +
+            "OR c.scoreVersionModele <> :versionModele)";
+
+    // parcours par clé (candidat_id, id) : les candidatures d'un même CV se suivent
+    @Query("SELECT new tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureCle(" +
+            "c.id, c.candidat.id, c.offre.idOffre) FROM Candidature c " +
+            "WHERE (c.candidat.id > :candidatId OR (c.candidat.id = :candidatId AND c.id > :id)) " +
+            "AND " + CONDITION_SCORE_PERIME + " " +
+            "ORDER BY c.candidat.id, c.id")
+    List<CandidatureCle> findPerimeesApres(@Param("candidatId") Long candidatId,
+                                           @Param("id") Long id,
+                                           @Param("versionModele") String versionModele,
+                                           Pageable pageable);
+
+    @Query("SELECT COUNT(c) FROM Candidature c WHERE " + CONDITION_SCORE_PERIME)
+    long countPerimees(@Param("versionModele") String versionModele);
+
     // tri par score
     @Query("SELECT c FROM Candidature c WHERE c.offre.idOffre = :offreId ORDER BY c.score DESC")
     List<Candidature> findByOffreIdOffreOrderByScoreDesc(@Param("offreId") Long offreId);
 
+    String PROJECTION_TRIEE = "SELECT new tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureTrieeDTO(" +
+            "c.id, c.datePostulation, c.etat, c.score, c.statutScore, c.lettreMotivation, " +
+            "ca.id, ca.nom, ca.prenom, ca.email, ca.cin, ca.fonctionActuelle, ca.cvPath, " +
+            "o.idOffre, o.titre, o.localisation) " +
+            "FROM Candidature c JOIN c.candidat ca JOIN c.offre o ";
+
+    // liste employeur : une seule requête, triée par score (les scores en attente en dernier) puis id,
+    // avec reprise après (apresScore, apresId) pour la pagination par clé
+    @Query(PROJECTION_TRIEE +
+            "WHERE o.idOffre = :offreId AND (:apresScore IS NULL " +
+            "OR COALESCE(c.score, -1) < :apresScore " +
+            "OR (COALESCE(c.score, -1) = :apresScore AND c.id > :apresId)) " +
+            "ORDER BY COALESCE(c.score, -1) DESC, c.id ASC")
+    List<CandidatureTrieeDTO> findTrieesParScore(@Param("offreId") Long offreId,
+                                                 @Param("apresScore") BigDecimal apresScore,
+                                                 @Param("apresId") Long apresId,
+                                                 Pageable pageable);
+
+    // une ligne du classement, pour le tenir à jour sans le recharger
+    @Query(PROJECTION_TRIEE + "WHERE c.id = :id")
+    Optional<CandidatureTrieeDTO> findTrieeParId(@Param("id") Long id);
+
+    // décisions par lot : candidatures de l'employeur parmi ids (id, offre_id, etat),
+    // verrouillées jusqu'à la fin de la transaction
+    @Query(value = "SELECT c.id, c.offre_id, c.etat FROM candidature c JOIN offre o ON o.id_offre = c.offre_id " +
+            "WHERE c.id IN (:ids) AND o.employeur_id = :employeurId FOR UPDATE", nativeQuery = true)
+    List<Object[]> verrouillerPourEmployeur(@Param("ids") Collection<Long> ids, @Param("employeurId") Long employeurId);
+
+    // colonnes du score seulement : l'état et la décision ont pu changer pendant le calcul
+    @Modifying
+    @Query("UPDATE Candidature c SET c.score = :score, c.statutScore = :statutScore, c.scoreCvHash = :cvHash, " +
+            "c.scoreOffreHash = :offreHash, c.scoreVersionModele = :versionModele, c.scorePerime = false " +
+            "WHERE c.id = :id")
+    int ecrireScore(@Param("id") Long id,
+                    @Param("score") BigDecimal score,
+                    @Param("statutScore") StatutScore statutScore,
+                    @Param("cvHash") String cvHash,
+                    @Param("offreHash") String offreHash,
+                    @Param("versionModele") String versionModele);
+
+    @Modifying
+    @Query("UPDATE Candidature c SET c.decision = :decision, c.etat = :etat WHERE c.id IN :ids")
+    int appliquerDecision(@Param("ids") Collection<Long> ids,
+                          @Param("decision") Decision decision,
+                          @Param("etat") StatutCandidature etat);
+
     // trouver meilleures offres pr candidat
     @Query("SELECT c FROM Candidature c WHERE c.candidat.id = :candidatId ORDER BY c.score DESC")
     List<Candidature> findByCandidatIdOrderByScoreDesc(@Param("candidatId") Long candidatId);
@@ -0,0 +1,9 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.CvExtrait;
+
+@Repository
+public interface CvExtraitRepository extends JpaRepository<CvExtrait, Long> {
+}
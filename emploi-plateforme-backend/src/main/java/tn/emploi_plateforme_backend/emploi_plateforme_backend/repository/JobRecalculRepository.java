@@ -0,0 +1,39 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.JobRecalcul;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutJob;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobRecalculRepository extends JpaRepository<JobRecalcul, Long> {
+    List<JobRecalcul> findByStatut(StatutJob statut);
+    Optional<JobRecalcul> findFirstByStatutOrderByIdDesc(StatutJob statut);
+
+    // conditionnels au statut EN_COURS : renvoient 0 si le job a été annulé ou terminé entre-temps
+    @Modifying
+    @Query("UPDATE JobRecalcul j SET j.traitees = :traitees, j.misesAJour = :misesAJour, " +
+            "j.dernierCandidatId = :candidatId, j.derniereCandidatureId = :candidatureId, j.dateMaj = :maintenant " +
+            "WHERE j.id = :id AND j.statut = 'EN_COURS'")
+    int enregistrerPointDeReprise(@Param("id") Long id,
+                                  @Param("traitees") long traitees,
+                                  @Param("misesAJour") long misesAJour,
+                                  @Param("candidatId") Long candidatId,
+                                  @Param("candidatureId") Long candidatureId,
+                                  @Param("maintenant") LocalDateTime maintenant);
+
+    @Modifying
+    @Query("UPDATE JobRecalcul j SET j.statut = :statut, j.dateFin = :maintenant, j.dateMaj = :maintenant, " +
+            "j.erreur = :erreur WHERE j.id = :id AND j.statut = 'EN_COURS'")
+    int terminer(@Param("id") Long id,
+                 @Param("statut") StatutJob statut,
+                 @Param("maintenant") LocalDateTime maintenant,
+                 @Param("erreur") String erreur);
+}
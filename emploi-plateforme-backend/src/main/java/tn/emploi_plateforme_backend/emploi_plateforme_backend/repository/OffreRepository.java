@@ -1,17 +1,28 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreEmployeurDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreResumeDTO;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Employeur;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
 
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OffreRepository extends JpaRepository<Offre, Long> {
@@ -26,15 +37,68 @@ public interface OffreRepository extends JpaRepository<Offre, Long> {
     Page<Offre> findByTitreContainingIgnoreCase(String titre, Pageable pageable);
     Page<Offre> findByLocalisationContainingIgnoreCase(String localisation, Pageable pageable);
     Page<Offre> findByTitreContainingIgnoreCaseAndLocalisationContainingIgnoreCase(String titre, String localisation, Pageable pageable);
-    @Query("SELECT o FROM Offre o WHERE o.etat = 'ACTIVE' " +
-            "AND (:titre IS NULL OR LOWER(o.titre) LIKE LOWER(CONCAT('%', :titre, '%'))) " +
-            "AND (:localisation IS NULL OR LOWER(o.localisation) LIKE LOWER(CONCAT('%', :localisation, '%')))")
-    Page<Offre> searchByTitreAndLocalisation(
-            @Param("titre") String titre,
-            @Param("localisation") String localisation,
-            Pageable pageable);
-
     List<Offre> findByEtatOrderByDatePublicationDesc(StatutOffre etat);
 
+    // colonnes affichées seulement : l'employeur se limite à employeur.nom_entreprise, sans charger l'entité
+    String PROJECTION_RESUME = "SELECT new tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreResumeDTO(" +
+            "o.idOffre, o.titre, o.description, o.localisation, o.datePublication, o.dateExpiration, o.etat, " +
+            "e.id, e.nomEntreprise) FROM Offre o JOIN o.employeur e ";
+
+    String ORDRE_RECENTES = "ORDER BY o.datePublication DESC, o.idOffre DESC";
+
+    // liste publique sans critère, plus récentes d'abord
+    @Query(value = PROJECTION_RESUME + "WHERE o.etat = 'ACTIVE' " + ORDRE_RECENTES,
+            countQuery = "SELECT COUNT(o) FROM Offre o WHERE o.etat = 'ACTIVE'")
+    Page<OffreResumeDTO> findResumesActives(Pageable pageable);
+
+    @Query(PROJECTION_RESUME + "WHERE o.etat = 'ACTIVE' " + ORDRE_RECENTES)
+    List<OffreResumeDTO> findResumesActives();
+
+    @Query(PROJECTION_RESUME + "WHERE o.idOffre = :id")
+    Optional<OffreResumeDTO> findResumeById(@Param("id") Long id);
+
+    @Query(PROJECTION_RESUME + "WHERE o.idOffre IN :ids")
+    List<OffreResumeDTO> findResumesByIds(@Param("ids") Collection<Long> ids);
+
+    // offres d'un employeur et leurs compteurs de candidatures (null si aucune), en une requête
+    @Query("SELECT new tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreEmployeurDTO(" +
+            "o.idOffre, o.titre, o.description, o.localisation, o.datePublication, o.dateExpiration, o.etat, " +
+            "e.id, e.nomEntreprise, k.enAttente, k.acceptees, k.refusees) " +
+            "FROM Offre o JOIN o.employeur e LEFT JOIN CompteurCandidatures k ON k.offreId = o.idOffre " +
+            "WHERE e.id = :employeurId")
+    List<OffreEmployeurDTO> findAvecCompteursByEmployeurId(@Param("employeurId") Long employeurId);
+
+    // offres actives, plus récentes d'abord, reprise après (apresDate, apresId) pour la pagination par clé
+    @Query(PROJECTION_RESUME + "WHERE o.etat = 'ACTIVE' " +
+            "AND (:depuis IS NULL OR o.datePublication >= :depuis) " +
+            "AND (:apresDate IS NULL OR o.datePublication < :apresDate " +
+            "OR (o.datePublication = :apresDate AND o.idOffre < :apresId)) " + ORDRE_RECENTES)
+    List<OffreResumeDTO> findActivesApres(@Param("depuis") LocalDate depuis,
+                                          @Param("apresDate") LocalDate apresDate,
+                                          @Param("apresId") Long apresId,
+                                          Pageable pageable);
+
+    // même ordre, lu ligne à ligne : fetch size MIN_VALUE = résultat en flux côté pilote MySQL
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query(PROJECTION_RESUME + "WHERE o.etat = 'ACTIVE' " +
+            "AND (:depuis IS NULL OR o.datePublication >= :depuis) " + ORDRE_RECENTES)
+    Stream<OffreResumeDTO> streamActives(@Param("depuis") LocalDate depuis);
+
+    // offres actives arrivées à échéance, verrouillées ; SKIP LOCKED : plusieurs nœuds se partagent les lignes
+    @Query(value = "SELECT id_offre FROM offre WHERE etat = 'ACTIVE' AND date_expiration < :aujourdhui " +
+            "ORDER BY id_offre LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> verrouillerEchues(@Param("aujourdhui") LocalDate aujourdhui, @Param("limite") int limite);
+
+    @Modifying
+    @Query("UPDATE Offre o SET o.etat = 'EXPIREE', o.expireeLe = :maintenant, " +
+            "o.version = o.version + 1 WHERE o.idOffre IN :ids")
+    int expirer(@Param("ids") Collection<Long> ids, @Param("maintenant") LocalDateTime maintenant);
+
+    // offres passées à EXPIREE depuis cet instant, par n'importe quel nœud : (id, expireeLe)
+    @Query("SELECT o.idOffre, o.expireeLe FROM Offre o WHERE o.etat = 'EXPIREE' AND o.expireeLe > :depuis")
+    List<Object[]> findExpireesDepuis(@Param("depuis") LocalDateTime depuis);
 
+    // index des suggestions : (id, titre, localisation) des offres actives, sans charger les entités
+    @Query("SELECT o.idOffre, o.titre, o.localisation FROM Offre o WHERE o.etat = 'ACTIVE'")
+    List<Object[]> findTitresLocalisationsActives();
 }
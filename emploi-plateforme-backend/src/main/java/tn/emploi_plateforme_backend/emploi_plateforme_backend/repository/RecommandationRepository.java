@@ -0,0 +1,43 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Recommandation;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecommandationRepository extends JpaRepository<Recommandation, Long> {
+    boolean existsByCandidatId(Long candidatId);
+
+    // top-K des offres encore ouvertes pour un candidat
+    @Query("SELECT r FROM Recommandation r JOIN Offre o ON o.idOffre = r.offreId " +
+            "WHERE r.candidatId = :candidatId AND o.etat = 'ACTIVE' AND o.dateExpiration >= :aujourdhui " +
+            "ORDER BY r.score DESC")
+    List<Recommandation> findTopActives(@Param("candidatId") Long candidatId,
+                                        @Param("aujourdhui") LocalDate aujourdhui,
+                                        Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Recommandation r WHERE r.candidatId = :candidatId")
+    int deleteByCandidatId(@Param("candidatId") Long candidatId);
+
+    @Modifying
+    @Query("DELETE FROM Recommandation r WHERE r.offreId = :offreId")
+    int deleteByOffreId(@Param("offreId") Long offreId);
+
+    @Modifying
+    @Query("DELETE FROM Recommandation r WHERE r.offreId IN :offreIds")
+    int deleteByOffreIdIn(@Param("offreIds") Collection<Long> offreIds);
+
+    @Modifying
+    @Query("DELETE FROM Recommandation r WHERE r.offreId = :offreId AND r.candidatId IN :candidatIds")
+    int deleteByOffreIdAndCandidatIdIn(@Param("offreId") Long offreId,
+                                       @Param("candidatIds") List<Long> candidatIds);
+}
@@ -0,0 +1,14 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.ScoreMemo;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScoreMemoRepository extends JpaRepository<ScoreMemo, Long> {
+    List<ScoreMemo> findByCvHashAndVersionModeleAndOffreHashIn(String cvHash, String versionModele,
+                                                               Collection<String> offreHashes);
+}
@@ -0,0 +1,45 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutTache;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.TacheScoring;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TacheScoringRepository extends JpaRepository<TacheScoring, Long> {
+    long countByStatut(StatutTache statut);
+
+    boolean existsByCandidatureId(Long candidatureId);
+
+    // tâches dues (y compris les échecs à retenter), ou réservées par un worker dont le bail a expiré
+    @Query("SELECT t.id FROM TacheScoring t WHERE " +
+            "(t.statut IN ('EN_ATTENTE', 'ECHEC') AND t.prochainEssai <= :maintenant) OR " +
+            "(t.statut = 'EN_COURS' AND t.verrouJusqua < :maintenant) " +
+            "ORDER BY t.prochainEssai")
+    List<Long> findIdsAPrendre(@Param("maintenant") LocalDateTime maintenant, Pageable pageable);
+
+    // réservation conditionnelle : 1 si ce worker a obtenu la tâche, 0 si un autre l'a prise
+    @Modifying
+    @Query("UPDATE TacheScoring t SET t.statut = 'EN_COURS', t.verrouJusqua = :bail, " +
+            "t.tentatives = t.tentatives + 1 WHERE t.id = :id AND (" +
+            "(t.statut IN ('EN_ATTENTE', 'ECHEC') AND t.prochainEssai <= :maintenant) OR " +
+            "(t.statut = 'EN_COURS' AND t.verrouJusqua < :maintenant))")
+    int reserver(@Param("id") Long id,
+                 @Param("maintenant") LocalDateTime maintenant,
+                 @Param("bail") LocalDateTime bail);
+
+    @Modifying
+    @Query("DELETE FROM TacheScoring t WHERE t.id = :id AND t.statut = 'EN_COURS'")
+    int supprimerSiEnCours(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM TacheScoring t WHERE t.candidatureId = :candidatureId")
+    int deleteByCandidatureId(@Param("candidatureId") Long candidatureId);
+}
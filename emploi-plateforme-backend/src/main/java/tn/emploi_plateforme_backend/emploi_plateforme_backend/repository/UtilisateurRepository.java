@@ -1,6 +1,8 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Utilisateur;
 
@@ -10,4 +12,7 @@ import java.util.Optional;
 public interface UtilisateurRepository extends JpaRepository<Utilisateur, Long> {
     Optional<Utilisateur> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM Utilisateur u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
 }
\ No newline at end of file
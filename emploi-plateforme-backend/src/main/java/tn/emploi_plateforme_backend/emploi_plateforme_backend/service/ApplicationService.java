@@ -1,14 +1,36 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.ApplicationDecisionItem;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureTrieeDTO;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.*;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CandidatureSoumiseEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CandidaturesDecideesEvent;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatureRepository;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.TacheScoringRepository;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.UtilisateurRepository;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ApplicationService {
@@ -23,9 +45,22 @@ public class ApplicationService {
     private OffreRepository offreRepository;
 
     @Autowired
-    private MatchingService matchingService;
+    private TacheScoringRepository tacheScoringRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OffresPostuleesCache offresPostuleesCache;
+
+    @Autowired
+    private ClassementCandidaturesCache classementCandidaturesCache;
+
+    @Autowired
+    private CompteurCandidaturesService compteurCandidaturesService;
 
+
+    @Transactional
     public void applyToJob(Long jobId, String candidatEmail, String lettreMotivation) {
         Utilisateur utilisateur = utilisateurRepository.findByEmail(candidatEmail)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
@@ -65,15 +100,23 @@ public class ApplicationService {
         candidature.setEtat(StatutCandidature.EN_ATTENTE);
         candidature.setLettreMotivation(lettreMotivation.trim());
 
-        // calcul score matching si le CV existe
-        if (candidat.getCvPath() != null && !candidat.getCvPath().isEmpty()) {
-            String offreText = offre.getTitre() + " " + offre.getDescription();
-            Double score = matchingService.calculateMatchingScore(candidat.getCvPath(), offreText);
-            candidature.setScore(BigDecimal.valueOf(score));
+        // score calculé en arrière-plan : la tâche est enregistrée dans la même transaction
+        boolean aScorer = candidat.getCvPath() != null && !candidat.getCvPath().isEmpty();
+        candidature.setScore(null);
+        candidature.setStatutScore(aScorer ? StatutScore.EN_ATTENTE : StatutScore.SANS_CV);
 
+        // identité générée : l'insertion est immédiate, la contrainte unique tranche les doubles soumissions
+        try {
+            candidatureRepository.save(candidature);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Vous avez déjà postulé à cette offre");
         }
 
-        candidatureRepository.save(candidature);
+        if (aScorer) {
+            tacheScoringRepository.save(new TacheScoring(candidature.getId()));
+        }
+        compteurCandidaturesService.candidatureCreee(offre.getIdOffre());
+        eventPublisher.publishEvent(new CandidatureSoumiseEvent(candidature.getId(), candidat.getId(), offre.getIdOffre(), aScorer));
     }
 
 
@@ -114,14 +157,28 @@ public class ApplicationService {
         return candidatureRepository.findByOffre(offre);
     }
 
-    // récupérer candidatures triées par score
-    public List<Candidature> getCandidaturesByOffreOrderByScore(Long offreId) {
-        return candidatureRepository.findByOffreIdOffreOrderByScoreDesc(offreId);
+    // récupérer candidatures triées par score ; sans limite, toute la liste
+    // premières pages servies par le classement en mémoire de l'offre
+    public List<CandidatureTrieeDTO> getCandidaturesByOffreOrderByScore(Long offreId, BigDecimal apresScore,
+                                                                        Long apresId, Integer limite) {
+        if (apresScore == null && apresId == null) {
+            List<CandidatureTrieeDTO> top = limite != null
+                    ? classementCandidaturesCache.top(offreId, limite)
+                    : classementCandidaturesCache.toutes(offreId);
+            if (top != null) {
+                return top;
+            }
+        }
+        // score en attente (null) : même valeur que dans le tri
+        BigDecimal curseur = apresScore == null && apresId != null ? BigDecimal.valueOf(-1) : apresScore;
+        Pageable page = limite != null ? PageRequest.of(0, limite) : Pageable.unpaged();
+        return candidatureRepository.findTrieesParScore(offreId, curseur, apresId != null ? apresId : 0L, page);
     }
 
 
+    @Transactional
     public void updateApplicationStatus(Long applicationId, Decision decision, String employeurEmail) {
-        Candidature candidature = candidatureRepository.findById(applicationId)
+        Candidature candidature = candidatureRepository.findByIdPourMiseAJour(applicationId)
                 .orElseThrow(() -> new RuntimeException("Candidature non trouvée"));
 
         Utilisateur utilisateur = utilisateurRepository.findByEmail(employeurEmail)
@@ -156,6 +213,90 @@ public class ApplicationService {
         }
 
         candidatureRepository.save(candidature);
+        compteurCandidaturesService.etatsModifies(StatutCandidature.EN_ATTENTE, candidature.getEtat(),
+                Map.of(candidature.getOffre().getIdOffre(), 1L));
+
+        CandidatureTrieeDTO ligne = CandidatureTrieeDTO.depuis(candidature);
+        apresCommit(() -> classementCandidaturesCache.placer(ligne));
+    }
+
+    // décisions par lot : une requête vérifie propriété et état (lignes verrouillées), une mise à jour par décision
+    // les éléments invalides sont signalés sans annuler les autres
+    @Transactional
+    public List<Map<String, Object>> updateApplicationStatusBatch(List<ApplicationDecisionItem> items,
+                                                                  String employeurEmail) {
+        Utilisateur utilisateur = utilisateurRepository.findByEmail(employeurEmail)
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+
+        if (!(utilisateur instanceof Employeur)) {
+            throw new RuntimeException("Seuls les employeurs peuvent modifier le statut des candidatures");
+        }
+
+        Set<Long> ids = items.stream()
+                .map(ApplicationDecisionItem::getApplicationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Object[]> candidatures = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] ligne : candidatureRepository.verrouillerPourEmployeur(ids, utilisateur.getId())) {
+                candidatures.put(((Number) ligne[0]).longValue(), ligne);
+            }
+        }
+
+        Map<Decision, List<Long>> parDecision = new EnumMap<>(Decision.class);
+        Map<Decision, Map<Long, Long>> nombreParOffre = new EnumMap<>(Decision.class);
+        Set<Long> vues = new HashSet<>();
+        Set<Long> offreIds = new HashSet<>();
+        List<Map<String, Object>> resultats = new ArrayList<>(items.size());
+        for (ApplicationDecisionItem item : items) {
+            Long id = item.getApplicationId();
+            Object[] ligne = id != null ? candidatures.get(id) : null;
+            String erreur = null;
+            if (id == null || item.getStatus() == null) {
+                erreur = "Identifiant de candidature et statut requis";
+            } else if (!vues.add(id)) {
+                erreur = "Candidature présente plusieurs fois dans le lot";
+            } else if (ligne == null) {
+                erreur = "Candidature non trouvée parmi celles de vos offres";
+            } else if (!StatutCandidature.EN_ATTENTE.name().equals(ligne[2])) {
+                erreur = "Cette candidature a déjà été traitée";
+            }
+
+            Map<String, Object> resultat = new LinkedHashMap<>();
+            resultat.put("applicationId", id);
+            resultat.put("success", erreur == null);
+            if (erreur == null) {
+                Long offreId = ((Number) ligne[1]).longValue();
+                parDecision.computeIfAbsent(item.getStatus(), d -> new ArrayList<>()).add(id);
+                nombreParOffre.computeIfAbsent(item.getStatus(), d -> new HashMap<>()).merge(offreId, 1L, Long::sum);
+                offreIds.add(offreId);
+                resultat.put("newStatus", item.getStatus().toString());
+            } else {
+                resultat.put("message", erreur);
+            }
+            resultats.add(resultat);
+        }
+
+        parDecision.forEach((decision, aAppliquer) -> {
+            candidatureRepository.appliquerDecision(aAppliquer, decision, etatPour(decision));
+            compteurCandidaturesService.etatsModifies(StatutCandidature.EN_ATTENTE, etatPour(decision),
+                    nombreParOffre.get(decision));
+        });
+        if (!offreIds.isEmpty()) {
+            eventPublisher.publishEvent(new CandidaturesDecideesEvent(offreIds));
+        }
+        return resultats;
+    }
+
+    private static StatutCandidature etatPour(Decision decision) {
+        switch (decision) {
+            case ACCEPTEE:
+                return StatutCandidature.ACCEPTEE;
+            case REFUSEE:
+                return StatutCandidature.REFUSEE;
+            default:
+                return StatutCandidature.EN_ATTENTE;
+        }
     }
 
     public Candidature getApplicationById(Long applicationId, String userEmail) {
@@ -203,8 +344,9 @@ public class ApplicationService {
     }
 
 
+    @Transactional
     public void withdrawApplication(Long applicationId, String candidatEmail) {
-        Candidature candidature = candidatureRepository.findById(applicationId)
+        Candidature candidature = candidatureRepository.findByIdPourMiseAJour(applicationId)
                 .orElseThrow(() -> new RuntimeException("Candidature non trouvée"));
 
         Utilisateur utilisateur = utilisateurRepository.findByEmail(candidatEmail)
@@ -224,24 +366,35 @@ public class ApplicationService {
             throw new RuntimeException("Vous ne pouvez retirer que les candidatures en attente");
         }
 
+        Long offreId = candidature.getOffre().getIdOffre();
         candidatureRepository.delete(candidature);
+        compteurCandidaturesService.candidatureRetiree(offreId, candidature.getEtat());
+
+        apresCommit(() -> {
+            offresPostuleesCache.invalider(candidat.getId());
+            classementCandidaturesCache.retirer(offreId, applicationId);
+        });
     }
 
-    //recalcul score
-    public void recalculateAllScores() {
-        List<Candidature> candidatures = candidatureRepository.findAll();
+    // caches mémoire : mis à jour une fois la transaction validée seulement
+    private static void apresCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 
-        for (Candidature candidature : candidatures) {
-            if (candidature.getCandidat().getCvPath() != null) {
-                String offreText = candidature.getOffre().getTitre() + " " + candidature.getOffre().getDescription();
-                Double score = matchingService.calculateMatchingScore(
-                        candidature.getCandidat().getCvPath(),
-                        offreText
-                );
-                candidature.setScore(BigDecimal.valueOf(score));
+    public boolean hasApplied(String candidatEmail, Long jobId) {
+        return utilisateurRepository.findIdByEmail(candidatEmail)
+                .map(candidatId -> offresPostuleesCache.aPostule(candidatId, jobId))
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+    }
 
-                candidatureRepository.save(candidature);
-            }
-        }
+    public Set<Long> getAppliedJobIds(String candidatEmail, Collection<Long> jobIds) {
+        return utilisateurRepository.findIdByEmail(candidatEmail)
+                .map(candidatId -> offresPostuleesCache.filtrerPostulees(candidatId, jobIds))
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
     }
 }
@@ -0,0 +1,217 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureTrieeDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CandidatureSoumiseEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CandidaturesDecideesEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CvModifieEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatureRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+// meilleures candidatures de chaque offre, tenues à jour à chaque écriture de score, retrait ou décision
+// chargé depuis la base au premier accès ; les offres froides sont évincées (budget en nombre de lignes)
+@Service
+public class ClassementCandidaturesCache {
+
+    @Autowired
+    private CandidatureRepository candidatureRepository;
+
+    // taille maximale servie depuis la mémoire ; on en garde le double pour absorber les retraits
+    private final int taille;
+    private final int capacite;
+    private final Cache<Long, Classement> classements;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong chargements = new AtomicLong();
+    private final AtomicLong misesAJour = new AtomicLong();
+
+    public ClassementCandidaturesCache(@Value("${candidature.classement.taille:50}") int taille,
+                                       @Value("${candidature.classement.max-lignes:100000}") long maxLignes) {
+        this.taille = taille;
+        this.capacite = taille * 2;
+        this.classements = Caffeine.newBuilder()
+                .maximumWeight(maxLignes)
+                .weigher((Long offreId, Classement classement) -> capacite)
+                .build();
+    }
+
+    // null : limite trop grande pour le classement en mémoire, à servir par la base
+    public List<CandidatureTrieeDTO> top(Long offreId, int limite) {
+        if (limite > taille) return null;
+
+        Classement classement = classements.getIfPresent(offreId);
+        if (classement != null) {
+            List<CandidatureTrieeDTO> premieres = classement.premieres(limite);
+            if (premieres != null) {
+                hits.incrementAndGet();
+                return premieres;
+            }
+            // trop de retraits depuis le chargement : on recharge
+            classements.asMap().remove(offreId, classement);
+        }
+        return classements.get(offreId, this::charger).premieres(limite);
+    }
+
+    // liste entière (appel sans limite) : servie depuis la mémoire si l'offre tient dans le classement, sinon null
+    public List<CandidatureTrieeDTO> toutes(Long offreId) {
+        Classement classement = classements.getIfPresent(offreId);
+        if (classement != null) {
+            List<CandidatureTrieeDTO> lignes = classement.toutes();
+            if (lignes != null) {
+                hits.incrementAndGet();
+            }
+            return lignes;
+        }
+        return classements.get(offreId, this::charger).toutes();
+    }
+
+    // nouvelle valeur d'une candidature (score, statut) déjà enregistrée en base
+    public void placer(CandidatureTrieeDTO candidature) {
+        // compute : attend un chargement en cours de la même offre pour ne pas perdre la mise à jour
+        classements.asMap().computeIfPresent(candidature.offreId(), (offreId, classement) -> {
+            classement.placer(candidature);
+            return classement;
+        });
+        misesAJour.incrementAndGet();
+    }
+
+    public void retirer(Long offreId, Long candidatureId) {
+        classements.asMap().computeIfPresent(offreId, (id, classement) -> {
+            classement.retirer(candidatureId);
+            return classement;
+        });
+        misesAJour.incrementAndGet();
+    }
+
+    public void invalider(Long offreId) {
+        classements.invalidate(offreId);
+    }
+
+    public void invalider(Collection<Long> offreIds) {
+        classements.invalidateAll(offreIds);
+    }
+
+    // nom, fonction ou CV du candidat affichés dans les lignes
+    public void invaliderCandidat(Long candidatId) {
+        classements.asMap().entrySet().removeIf(entree -> entree.getValue().contient(candidatId));
+    }
+
+    @TransactionalEventListener
+    public void onCandidatureSoumise(CandidatureSoumiseEvent event) {
+        if (classements.getIfPresent(event.offreId()) != null) {
+            candidatureRepository.findTrieeParId(event.candidatureId()).ifPresent(this::placer);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCandidaturesDecidees(CandidaturesDecideesEvent event) {
+        invalider(event.offreIds());
+    }
+
+    @EventListener
+    public void onOffreModifiee(OffreModifieeEvent event) {
+        if (event.contenuModifie()) {
+            invalider(event.offreId());
+        }
+    }
+
+    @EventListener
+    public void onOffreSupprimee(OffreSupprimeeEvent event) {
+        invalider(event.offreId());
+    }
+
+    @EventListener
+    public void onCvModifie(CvModifieEvent event) {
+        invaliderCandidat(event.candidatId());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("offres", classements.estimatedSize());
+        result.put("taille", taille);
+        result.put("hits", hits.get());
+        result.put("chargements", chargements.get());
+        result.put("misesAJour", misesAJour.get());
+        return result;
+    }
+
+    private Classement charger(Long offreId) {
+        chargements.incrementAndGet();
+        List<CandidatureTrieeDTO> lignes = candidatureRepository.findTrieesParScore(
+                offreId, null, 0L, PageRequest.of(0, capacite));
+        return new Classement(lignes, lignes.size() < capacite, capacite);
+    }
+
+    // préfixe exact de la liste triée de l'offre ; complet : toutes les candidatures de l'offre y sont
+    private static class Classement {
+        private final TreeSet<CandidatureTrieeDTO> lignes = new TreeSet<>(CandidatureTrieeDTO.ORDRE);
+        private final Map<Long, CandidatureTrieeDTO> parId = new HashMap<>();
+        private final int capacite;
+        private boolean complet;
+
+        Classement(List<CandidatureTrieeDTO> chargees, boolean complet, int capacite) {
+            this.complet = complet;
+            this.capacite = capacite;
+            chargees.forEach(this::ajouter);
+        }
+
+        synchronized List<CandidatureTrieeDTO> premieres(int limite) {
+            if (!complet && lignes.size() < limite) return null;
+            List<CandidatureTrieeDTO> result = new ArrayList<>(Math.min(limite, lignes.size()));
+            for (CandidatureTrieeDTO ligne : lignes) {
+                if (result.size() == limite) break;
+                result.add(ligne);
+            }
+            return result;
+        }
+
+        synchronized List<CandidatureTrieeDTO> toutes() {
+            return complet ? new ArrayList<>(lignes) : null;
+        }
+
+        synchronized void placer(CandidatureTrieeDTO candidature) {
+            retirer(candidature.getId());
+            // au-delà de la dernière ligne connue, d'autres candidatures non chargées peuvent la précéder
+            if (complet || (!lignes.isEmpty() && CandidatureTrieeDTO.ORDRE.compare(candidature, lignes.last()) < 0)) {
+                ajouter(candidature);
+                if (lignes.size() > capacite) {
+                    parId.remove(lignes.pollLast().getId());
+                    complet = false;
+                }
+            }
+        }
+
+        synchronized void retirer(Long candidatureId) {
+            CandidatureTrieeDTO ancienne = parId.remove(candidatureId);
+            if (ancienne != null) {
+                lignes.remove(ancienne);
+            }
+        }
+
+        synchronized boolean contient(Long candidatId) {
+            return parId.values().stream().anyMatch(ligne -> candidatId.equals(ligne.candidatId()));
+        }
+
+        private void ajouter(CandidatureTrieeDTO candidature) {
+            lignes.add(candidature);
+            parId.put(candidature.getId(), candidature);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutCandidature;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// compteurs de candidatures par offre et par état (table compteur_candidatures)
+// modifiés dans la transaction qui crée, retire ou décide une candidature ; recomptage périodique contre la dérive
+@Service
+public class CompteurCandidaturesService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompteurCandidaturesService.class);
+
+    // ligne créée au premier mouvement ; jamais en dessous de zéro
+    private static final String AJOUTER =
+            "INSERT INTO compteur_candidatures (offre_id, en_attente, acceptees, refusees, date_maj) " +
+            "VALUES (?, GREATEST(?, 0), GREATEST(?, 0), GREATEST(?, 0), NOW(6)) ON DUPLICATE KEY UPDATE " +
+            "en_attente = GREATEST(en_attente + ?, 0), " +
+            "acceptees = GREATEST(acceptees + ?, 0), " +
+            "refusees = GREATEST(refusees + ?, 0), date_maj = NOW(6)";
+
+    private static final String REMPLACER =
+            "INSERT INTO compteur_candidatures (offre_id, en_attente, acceptees, refusees, date_maj) " +
+            "VALUES (?, ?, ?, ?, NOW(6)) ON DUPLICATE KEY UPDATE en_attente = VALUES(en_attente), " +
+            "acceptees = VALUES(acceptees), refusees = VALUES(refusees), date_maj = VALUES(date_maj)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${candidature.compteurs.reconciliation-tranche:1000}")
+    private int tranche;
+
+    private final TransactionTemplate transaction;
+
+    private final AtomicLong corrections = new AtomicLong();
+    private volatile LocalDateTime derniereReconciliation;
+
+    public CompteurCandidaturesService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void candidatureCreee(Long offreId) {
+        appliquer(Map.of(offreId, delta(StatutCandidature.EN_ATTENTE, 1)));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void candidatureRetiree(Long offreId, StatutCandidature etat) {
+        appliquer(Map.of(offreId, delta(etat, -1)));
+    }
+
+    // nombreParOffre : candidatures passées de ancien à nouveau, par offre
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void etatsModifies(StatutCandidature ancien, StatutCandidature nouveau, Map<Long, Long> nombreParOffre) {
+        Map<Long, long[]> deltas = new HashMap<>();
+        nombreParOffre.forEach((offreId, n) -> {
+            long[] d = delta(ancien, -n);
+            long[] plus = delta(nouveau, n);
+            for (int i = 0; i < d.length; i++) d[i] += plus[i];
+            deltas.put(offreId, d);
+        });
+        appliquer(deltas);
+    }
+
+    @EventListener
+    public void onOffreSupprimee(OffreSupprimeeEvent event) {
+        jdbcTemplate.update("DELETE FROM compteur_candidatures WHERE offre_id = ?", event.offreId());
+    }
+
+    // recomptage par tranches d'offres ; renvoie le nombre de compteurs corrigés
+    @Scheduled(cron = "${candidature.compteurs.reconciliation-cron:0 30 3 * * *}")
+    public long reconcilier() {
+        Long max = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(COALESCE((SELECT MAX(id_offre) FROM offre), 0), " +
+                "COALESCE((SELECT MAX(offre_id) FROM compteur_candidatures), 0))", Long.class);
+        long corriges = 0;
+        for (long debut = 1; max != null && debut <= max; debut += tranche) {
+            long de = debut, a = debut + tranche - 1;
+            Integer n = transaction.execute(status -> reconcilierTranche(de, a));
+            corriges += n != null ? n : 0;
+        }
+        if (corriges > 0) {
+            log.warn("Réconciliation des compteurs de candidatures: {} offres corrigées", corriges);
+        }
+        corrections.addAndGet(corriges);
+        derniereReconciliation = LocalDateTime.now();
+        return corriges;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("derniereReconciliation", derniereReconciliation);
+        result.put("corrections", corrections.get());
+        return result;
+    }
+
+    private int reconcilierTranche(long debut, long fin) {
+        // verrou sur les compteurs (et les trous) de la tranche : les candidatures concurrentes attendent
+        // la fin du recomptage, qui voit donc toutes celles déjà validées
+        Map<Long, long[]> stockes = new HashMap<>();
+        jdbcTemplate.query("SELECT offre_id, en_attente, acceptees, refusees FROM compteur_candidatures " +
+                        "WHERE offre_id BETWEEN ? AND ? FOR UPDATE",
+                rs -> { stockes.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3), rs.getLong(4)}); },
+                debut, fin);
+
+        Map<Long, long[]> reels = new HashMap<>();
+        jdbcTemplate.query("SELECT offre_id, SUM(etat = 'EN_ATTENTE'), SUM(etat = 'ACCEPTEE'), SUM(etat = 'REFUSEE') " +
+                        "FROM candidature WHERE offre_id BETWEEN ? AND ? GROUP BY offre_id",
+                rs -> { reels.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3), rs.getLong(4)}); },
+                debut, fin);
+
+        List<Object[]> lignes = new ArrayList<>();
+        reels.forEach((offreId, reel) -> {
+            if (!Arrays.equals(reel, stockes.get(offreId))) {
+                lignes.add(new Object[]{offreId, reel[0], reel[1], reel[2]});
+            }
+        });
+        stockes.forEach((offreId, stocke) -> {
+            if (!reels.containsKey(offreId) && Arrays.stream(stocke).anyMatch(n -> n != 0)) {
+                lignes.add(new Object[]{offreId, 0L, 0L, 0L});
+            }
+        });
+        if (!lignes.isEmpty()) {
+            jdbcTemplate.batchUpdate(REMPLACER, lignes);
+        }
+        return lignes.size();
+    }
+
+    private void appliquer(Map<Long, long[]> deltas) {
+        List<Object[]> lignes = new ArrayList<>(deltas.size());
+        deltas.forEach((offreId, d) -> lignes.add(new Object[]{offreId, d[0], d[1], d[2], d[0], d[1], d[2]}));
+        jdbcTemplate.batchUpdate(AJOUTER, lignes);
+    }
+
+    // (en attente, acceptées, refusées)
+    private static long[] delta(StatutCandidature etat, long n) {
+        long[] d = new long[3];
+        if (etat != null) {
+            switch (etat) {
+                case EN_ATTENTE:
+                    d[0] = n;
+                    break;
+                case ACCEPTEE:
+                    d[1] = n;
+                    break;
+                case REFUSEE:
+                    d[2] = n;
+                    break;
+            }
+        }
+        return d;
+    }
+}
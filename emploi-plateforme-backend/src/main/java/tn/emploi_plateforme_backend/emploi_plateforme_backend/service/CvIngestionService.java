@@ -0,0 +1,183 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.CvExtrait;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutExtractionCv;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CvModifieEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CvExtraitRepository;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// extraction du texte des CV en arrière-plan, une seule fois par upload
+@Service
+public class CvIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CvIngestionService.class);
+
+    private static final Pattern CARACTERES_CONTROLE = Pattern.compile("[\\p{Cntrl}&&[^\\n]]");
+    private static final Pattern ESPACES = Pattern.compile("[ \\t\\x0B\\f\\u00A0]+");
+    private static final Pattern LIGNES_VIDES = Pattern.compile("\\n\\s*\\n+");
+    private static final int TRANCHE = 100;
+
+    @Autowired
+    private CandidatRepository candidatRepository;
+
+    @Autowired
+    private CvExtraitRepository cvExtraitRepository;
+
+    @Autowired
+    private CvTextCache cvTextCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("cvIngestionExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    private final TransactionTemplate transaction;
+
+    public CvIngestionService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // CV soumis à l'executor et pas encore traités : le balayage ne les soumet pas une seconde fois
+    private final Set<String> enVol = ConcurrentHashMap.newKeySet();
+
+    // false si la file est pleine : le CV reste EN_ATTENTE et sera repris par le balayage
+    public boolean soumettre(Long candidatId, String cvPath) {
+        String cle = candidatId + "|" + cvPath;
+        if (!enVol.add(cle)) return true;
+        try {
+            executor.execute(() -> {
+                try {
+                    ingerer(candidatId, cvPath);
+                } finally {
+                    enVol.remove(cle);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            enVol.remove(cle);
+            log.warn("File d'extraction pleine, CV du candidat {} repris au prochain balayage", candidatId);
+            return false;
+        }
+    }
+
+    // CV jamais extraits, refusés quand la file était pleine ou interrompus par un arrêt
+    // la file n'est remplie qu'à moitié : l'autre moitié reste libre pour les uploads
+    @Scheduled(fixedDelayString = "${cv.ingestion.balayage-ms:60000}")
+    public synchronized void balayer() {
+        BlockingQueue<Runnable> file = executor.getThreadPoolExecutor().getQueue();
+        int reserve = (file.size() + file.remainingCapacity()) / 2;
+        Long apresId = 0L;
+        int soumis = 0;
+        boolean plein = false;
+        while (!plein) {
+            List<Object[]> lignes = candidatRepository.findCvsAExtraire(apresId, PageRequest.of(0, TRANCHE));
+            for (Object[] ligne : lignes) {
+                apresId = (Long) ligne[0];
+                String cvPath = (String) ligne[1];
+                if (enVol.contains(apresId + "|" + cvPath)) continue;
+                if (file.remainingCapacity() <= reserve || !soumettre(apresId, cvPath)) {
+                    plein = true;
+                    break;
+                }
+                soumis++;
+            }
+            if (lignes.size() < TRANCHE) break;
+        }
+        if (soumis > 0) {
+            log.info("Extraction de {} CV en attente soumise{}", soumis, plein ? ", suite au prochain balayage" : "");
+        }
+    }
+
+    // texte prêt pour le matching, ou null si l'extraction n'est pas terminée
+    public String getTexteExtrait(Candidat candidat) {
+        if (candidat.getCvStatutExtraction() != StatutExtractionCv.PRETE) {
+            return null;
+        }
+        return cvExtraitRepository.findById(candidat.getId())
+                .filter(extrait -> extrait.getCvPath().equals(candidat.getCvPath()))
+                .map(CvExtrait::getTexte)
+                .orElse(null);
+    }
+
+    public void supprimer(Long candidatId) {
+        if (cvExtraitRepository.existsById(candidatId)) {
+            cvExtraitRepository.deleteById(candidatId);
+        }
+    }
+
+    public static String normaliser(String texte) {
+        if (texte == null) return "";
+        String normalise = Normalizer.normalize(texte, Normalizer.Form.NFC)
+                .replace("\r\n", "\n")
+                .replace('\r', '\n');
+        normalise = CARACTERES_CONTROLE.matcher(normalise).replaceAll(" ");
+        normalise = ESPACES.matcher(normalise).replaceAll(" ");
+        normalise = LIGNES_VIDES.matcher(normalise).replaceAll("\n\n");
+        return normalise.trim();
+    }
+
+    // statut écrit par une mise à jour ciblée sur (candidat, CV) : le profil modifié entre-temps n'est pas écrasé
+    // et un CV remplacé pendant l'extraction n'est pas marqué avec le résultat de l'ancien
+    private void ingerer(Long candidatId, String cvPath) {
+        if (!marquer(candidatId, cvPath, StatutExtractionCv.EN_COURS, null)) return;
+
+        try {
+            String texte = normaliser(cvTextCache.getText(cvPath));
+            if (texte.isEmpty()) {
+                throw new IllegalStateException("aucun texte extrait");
+            }
+
+            Boolean prete = transaction.execute(status -> {
+                CvExtrait extrait = new CvExtrait();
+                extrait.setCandidatId(candidatId);
+                extrait.setCvPath(cvPath);
+                extrait.setTexte(texte);
+                extrait.setDateExtraction(LocalDateTime.now());
+                cvExtraitRepository.save(extrait);
+
+                // le CV a été remplacé pendant l'extraction : texte abandonné
+                if (candidatRepository.marquerExtraction(candidatId, cvPath,
+                        StatutExtractionCv.PRETE.name(), extrait.getDateExtraction()) == 0) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(prete)) {
+                eventPublisher.publishEvent(new CvModifieEvent(candidatId));
+            }
+        } catch (Exception e) {
+            log.warn("Échec de l'extraction du CV {} du candidat {}: {}", cvPath, candidatId, e.getMessage());
+            marquer(candidatId, cvPath, StatutExtractionCv.ECHEC, null);
+        }
+    }
+
+    private boolean marquer(Long candidatId, String cvPath, StatutExtractionCv statut, LocalDateTime dateExtraction) {
+        Integer lignes = transaction.execute(status ->
+                candidatRepository.marquerExtraction(candidatId, cvPath, statut.name(), dateExtraction));
+        return lignes != null && lignes > 0;
+    }
+}
@@ -0,0 +1,173 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// cache du texte extrait des CV, indexé par empreinte SHA-256 du fichier
+// niveau 1 : mémoire (borné en nombre de caractères), niveau 2 : disque
+@Service
+public class CvTextCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CvTextCache.class);
+
+    private final Cache<String, String> memoire;
+    private final Path repertoireDisque;
+
+    // chemin -> empreinte, pour ne pas relire le fichier tant qu'il n'a pas changé
+    private final Map<Path, EmpreinteFichier> empreintes = new ConcurrentHashMap<>();
+
+    private final AtomicLong disqueHits = new AtomicLong();
+    private final AtomicLong extractions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CvTextCache(@Value("${matching.cv-cache.max-chars:20000000}") long maxChars,
+                       @Value("${matching.cv-cache.dir:uploads/cv-text}") String repertoire) {
+        this.memoire = Caffeine.newBuilder()
+                .maximumWeight(maxChars)
+                .weigher((String cle, String texte) -> texte.length())
+                .recordStats()
+                .build();
+        this.repertoireDisque = Paths.get(repertoire).toAbsolutePath();
+        try {
+            Files.createDirectories(repertoireDisque);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create CV text cache directory!", e);
+        }
+    }
+
+    public String getText(String cvPath) throws IOException {
+        Path fichier = Paths.get(cvPath).toAbsolutePath();
+        String empreinte = empreinte(fichier);
+        try {
+            return memoire.get(empreinte, cle -> chargerOuExtraire(cle, fichier));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // à appeler avant de remplacer ou supprimer le fichier
+    public void invalidate(String cvPath) {
+        if (cvPath == null) return;
+        Path fichier = Paths.get(cvPath).toAbsolutePath();
+        EmpreinteFichier connue = empreintes.remove(fichier);
+        String empreinte = connue != null ? connue.empreinte() : null;
+        if (empreinte == null && Files.exists(fichier)) {
+            try {
+                empreinte = hacher(fichier);
+            } catch (IOException e) {
+                log.warn("Impossible de calculer l'empreinte de {}: {}", fichier, e.getMessage());
+            }
+        }
+        if (empreinte == null) return;
+
+        memoire.invalidate(empreinte);
+        try {
+            Files.deleteIfExists(fichierDisque(empreinte));
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer le texte en cache {}: {}", empreinte, e.getMessage());
+        }
+        invalidations.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = memoire.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("memoireHits", stats.hitCount());
+        result.put("memoireMisses", stats.missCount());
+        result.put("disqueHits", disqueHits.get());
+        result.put("extractions", extractions.get());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("invalidations", invalidations.get());
+        result.put("entrees", memoire.estimatedSize());
+        result.put("caracteres", memoire.policy().eviction()
+                .map(e -> e.weightedSize().orElse(0L))
+                .orElse(0L));
+        return result;
+    }
+
+    private String chargerOuExtraire(String empreinte, Path fichier) {
+        Path surDisque = fichierDisque(empreinte);
+        try {
+            if (Files.exists(surDisque)) {
+                disqueHits.incrementAndGet();
+                return Files.readString(surDisque, StandardCharsets.UTF_8);
+            }
+
+            String texte = extractTextFromPdf(fichier.toFile());
+            extractions.incrementAndGet();
+
+            Path temporaire = Files.createTempFile(repertoireDisque, empreinte, ".tmp");
+            Files.writeString(temporaire, texte, StandardCharsets.UTF_8);
+            Files.move(temporaire, surDisque, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return texte;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String empreinte(Path fichier) throws IOException {
+        long taille = Files.size(fichier);
+        long modification = Files.getLastModifiedTime(fichier).toMillis();
+
+        EmpreinteFichier connue = empreintes.get(fichier);
+        if (connue != null && connue.taille() == taille && connue.modification() == modification) {
+            return connue.empreinte();
+        }
+
+        String empreinte = hacher(fichier);
+        empreintes.put(fichier, new EmpreinteFichier(taille, modification, empreinte));
+        return empreinte;
+    }
+
+    private Path fichierDisque(String empreinte) {
+        return repertoireDisque.resolve(empreinte + ".txt");
+    }
+
+    private static String hacher(Path fichier) throws IOException {
+        try (InputStream in = Files.newInputStream(fichier)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int lus;
+            while ((lus = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, lus);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String extractTextFromPdf(File file) throws IOException {
+        try (PDDocument document = PDDocument.load(file)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            return stripper.getText(document);
+        }
+    }
+
+    private record EmpreinteFichier(long taille, long modification, String empreinte) {}
+}
@@ -0,0 +1,126 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffresExpireesEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// passe à EXPIREE les offres actives dont la date d'expiration est dépassée, par tranches
+// plusieurs nœuds peuvent tourner en même temps : chaque tranche est réservée par SELECT ... FOR UPDATE SKIP LOCKED
+// chaque nœud relit ensuite les offres expirées par les autres (expiree_le) pour nettoyer ses index et caches en mémoire
+@Service
+public class ExpirationOffresService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpirationOffresService.class);
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${offre.expiration.tranche:500}")
+    private int tranche;
+
+    // recouvrement de la relecture : transactions validées dans le désordre, horloges des nœuds
+    @Value("${offre.expiration.marge-synchro-ms:300000}")
+    private long margeSynchroMs;
+
+    private final TransactionTemplate transaction;
+
+    // offres déjà signalées localement, avec leur instant d'expiration, purgées hors de la marge
+    private final Map<Long, LocalDateTime> signalees = new HashMap<>();
+    private LocalDateTime derniereSynchro = LocalDateTime.now();
+
+    private final AtomicLong expirees = new AtomicLong();
+    private final AtomicLong synchronisees = new AtomicLong();
+    private volatile LocalDateTime derniereExecution;
+
+    public ExpirationOffresService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // renvoie le nombre d'offres expirées par ce nœud
+    @Scheduled(fixedDelayString = "${offre.expiration.intervalle-ms:300000}")
+    public synchronized int executer() {
+        int total = 0;
+        LocalDate aujourdhui = LocalDate.now();
+        while (true) {
+            // précision de la colonne datetime(6) : la valeur relue par synchroniser() sera identique
+            LocalDateTime maintenant = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            List<Long> ids = transaction.execute(status -> {
+                List<Long> echues = offreRepository.verrouillerEchues(aujourdhui, tranche);
+                if (!echues.isEmpty()) {
+                    offreRepository.expirer(echues, maintenant);
+                }
+                return echues;
+            });
+            if (ids == null || ids.isEmpty()) break;
+
+            Set<Long> lot = new LinkedHashSet<>(ids);
+            lot.forEach(id -> signalees.put(id, maintenant));
+            eventPublisher.publishEvent(new OffresExpireesEvent(lot));
+            total += lot.size();
+            if (ids.size() < tranche) break;
+        }
+        if (total > 0) {
+            log.info("Expiration planifiée: {} offres passées à EXPIREE", total);
+        }
+        expirees.addAndGet(total);
+        synchroniser();
+        derniereExecution = LocalDateTime.now();
+        return total;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("derniereExecution", derniereExecution);
+        result.put("expirees", expirees.get());
+        result.put("synchronisees", synchronisees.get());
+        return result;
+    }
+
+    // offres expirées par les autres nœuds depuis le dernier passage
+    private void synchroniser() {
+        LocalDateTime depuis = derniereSynchro.minus(Duration.ofMillis(margeSynchroMs));
+        Set<Long> lot = new LinkedHashSet<>();
+        LocalDateTime plusRecente = derniereSynchro;
+        for (Object[] ligne : offreRepository.findExpireesDepuis(depuis)) {
+            Long id = (Long) ligne[0];
+            LocalDateTime expireeLe = (LocalDateTime) ligne[1];
+            // instant différent : offre réactivée puis expirée de nouveau
+            if (!expireeLe.equals(signalees.put(id, expireeLe))) {
+                lot.add(id);
+            }
+            if (expireeLe.isAfter(plusRecente)) {
+                plusRecente = expireeLe;
+            }
+        }
+        derniereSynchro = plusRecente;
+        signalees.values().removeIf(expireeLe -> expireeLe.isBefore(depuis));
+
+        if (!lot.isEmpty()) {
+            eventPublisher.publishEvent(new OffresExpireesEvent(lot));
+            synchronisees.addAndGet(lot.size());
+        }
+    }
+}
@@ -1,20 +1,40 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.AvecEtag;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.JobRequest;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreEmployeurDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreResumeDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.SuggestionDTO;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Employeur;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Utilisateur;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.UtilisateurRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class JobService {
@@ -25,26 +45,109 @@ public class JobService {
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OffreRechercheIndex offreRechercheIndex;
+
+    @Autowired
+    private OffresPubliquesCache offresPubliquesCache;
+
+    @Autowired
+    private SuggestionsOffresIndex suggestionsOffresIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final int EXPORT_LOT = 200;
+
+
+    public AvecEtag<List<OffreResumeDTO>> getAllActiveJobs() {
+        return offresPubliquesCache.actives(offreRepository::findResumesActives);
+    }
+
+    // pagination par clé (datePublication, idOffre) ; depuis : offres publiées à partir de cette date
+    public List<OffreResumeDTO> getActiveJobsApres(LocalDate depuis, LocalDate apresDate, Long apresId, int limite) {
+        return offreRepository.findActivesApres(depuis, apresDate, apresId != null ? apresId : 0L,
+                PageRequest.of(0, limite));
+    }
+
+    // export NDJSON (une offre par ligne) lu en flux depuis la base : mémoire constante quelle que soit la taille
+    @Transactional(readOnly = true)
+    public void exporterOffresActives(LocalDate depuis, OutputStream sortie) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<OffreResumeDTO> offres = offreRepository.streamActives(depuis)) {
+            int n = 0;
+            for (Iterator<OffreResumeDTO> it = offres.iterator(); it.hasNext(); ) {
+                sortie.write(writer.writeValueAsBytes(it.next()));
+                sortie.write('\n');
+                if (++n % EXPORT_LOT == 0) {
+                    sortie.flush();
+                }
+            }
+        }
+        sortie.flush();
+    }
 
-    public List<Offre> getAllActiveJobs() {
-        return offreRepository.findByEtatOrderByDatePublicationDesc(StatutOffre.ACTIVE);
+    public AvecEtag<Page<OffreResumeDTO>> getJobs(int page, int size, String titre, String localisation) {
+        return offresPubliquesCache.page(OffresPubliquesCache.CleListe.de(titre, localisation, page, size),
+                this::chargerPage);
     }
 
-    public Page<Offre> getJobs(int page, int size, String titre, String localisation) {
-        Pageable pageable = PageRequest.of(page, size);
+    // ETags sans chargement, pour répondre 304 avant toute requête
+    public String etagJobs(int page, int size, String titre, String localisation) {
+        return offresPubliquesCache.etagPage(OffresPubliquesCache.CleListe.de(titre, localisation, page, size));
+    }
+
+    public String etagActiveJobs() {
+        return offresPubliquesCache.etagActives();
+    }
+
+    public String etagJobById(Long id) {
+        return offresPubliquesCache.etagDetail(id);
+    }
+
+    public Page<OffreResumeDTO> searchJobs(int page, int size, String titre, String localisation) {
+        return getJobs(page, size, titre, localisation).contenu();
+    }
+
+    public List<SuggestionDTO> suggererTitres(String saisie, int limite) {
+        return suggestionsOffresIndex.suggererTitres(saisie, limite);
+    }
 
-        if (titre != null && titre.trim().isEmpty()) titre = null;
-        if (localisation != null && localisation.trim().isEmpty()) localisation = null;
+    public List<SuggestionDTO> suggererLocalisations(String saisie, int limite) {
+        return suggestionsOffresIndex.suggererLocalisations(saisie, limite);
+    }
 
-        return offreRepository.searchByTitreAndLocalisation(titre, localisation, pageable);
+    public AvecEtag<OffreResumeDTO> getJobById(Long id) {
+        return offresPubliquesCache.detail(id, cle -> offreRepository.findResumeById(cle)
+                .orElseThrow(() -> new RuntimeException("Offre non trouvée")));
     }
 
-    public Page<Offre> searchJobs(int page, int size, String titre, String localisation) {
-        Pageable pageable = PageRequest.of(page, size);
-        return offreRepository.searchByTitreAndLocalisation(titre, localisation, pageable);
+    private Page<OffreResumeDTO> chargerPage(OffresPubliquesCache.CleListe cle) {
+        Pageable pageable = PageRequest.of(cle.page(), cle.size());
+
+        // sans critère : simple liste des offres actives
+        if (cle.titre() == null && cle.localisation() == null) {
+            return offreRepository.findResumesActives(pageable);
+        }
+
+        // index plein texte, puis chargement des offres de la page dans l'ordre de pertinence
+        Page<Long> ids = offreRechercheIndex.rechercher(cle.titre(), cle.localisation(), pageable);
+        if (ids.getContent().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, OffreResumeDTO> offres = offreRepository.findResumesByIds(ids.getContent()).stream()
+                .collect(Collectors.toMap(OffreResumeDTO::getIdOffre, Function.identity()));
+        List<OffreResumeDTO> contenu = ids.getContent().stream()
+                .map(offres::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(contenu, pageable, ids.getTotalElements());
     }
 
-    public Offre getJobById(Long id) {
+    private Offre chargerOffre(Long id) {
         return offreRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Offre non trouvée"));
     }
@@ -72,11 +175,13 @@ public class JobService {
         offre.setEmployeur(employeur);
         offre.setEtat(StatutOffre.ACTIVE);
 
-        return offreRepository.save(offre);
+        Offre saved = offreRepository.save(offre);
+        eventPublisher.publishEvent(new OffreModifieeEvent(saved.getIdOffre(), true, true));
+        return saved;
     }
 
     public Offre updateJob(Long id, JobRequest request, String employeurEmail) {
-        Offre offre = getJobById(id);
+        Offre offre = chargerOffre(id);
 
         Utilisateur utilisateur = utilisateurRepository.findByEmail(employeurEmail)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
@@ -90,16 +195,28 @@ public class JobService {
             throw new RuntimeException("La nouvelle date d'expiration doit être postérieure à aujourd'hui");
         }
 
+        boolean contenuModifie = !Objects.equals(offre.getTitre(), request.getTitre())
+                || !Objects.equals(offre.getDescription(), request.getDescription());
+
         offre.setTitre(request.getTitre());
         offre.setDescription(request.getDescription());
         offre.setLocalisation(request.getLocalisation());
         offre.setDateExpiration(request.getDateExpiration());
 
-        return offreRepository.save(offre);
+        // échéance repoussée après l'expiration planifiée : l'offre redevient active
+        boolean reactivee = offre.getEtat() == StatutOffre.EXPIREE;
+        if (reactivee) {
+            offre.setEtat(StatutOffre.ACTIVE);
+            offre.setExpireeLe(null);
+        }
+
+        Offre saved = offreRepository.save(offre);
+        eventPublisher.publishEvent(new OffreModifieeEvent(saved.getIdOffre(), contenuModifie, reactivee));
+        return saved;
     }
 
     public void deleteJob(Long id, String employeurEmail) {
-        Offre offre = getJobById(id);
+        Offre offre = chargerOffre(id);
 
         Utilisateur utilisateur = utilisateurRepository.findByEmail(employeurEmail)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
@@ -109,9 +226,10 @@ public class JobService {
         }
 
         offreRepository.delete(offre);
+        eventPublisher.publishEvent(new OffreSupprimeeEvent(id));
     }
 
-    public List<Offre> getEmployerJobs(String employeurEmail) {
+    public List<OffreEmployeurDTO> getEmployerJobs(String employeurEmail) {
         Utilisateur utilisateur = utilisateurRepository.findByEmail(employeurEmail)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
 
@@ -119,7 +237,6 @@ public class JobService {
             throw new RuntimeException("Seuls les employeurs peuvent accéder à cette ressource");
         }
 
-        Employeur employeur = (Employeur) utilisateur;
-        return offreRepository.findByEmployeur(employeur);
+        return offreRepository.findAvecCompteursByEmployeurId(utilisateur.getId());
     }
 }
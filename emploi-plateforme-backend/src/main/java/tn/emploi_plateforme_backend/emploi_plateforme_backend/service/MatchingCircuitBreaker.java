@@ -0,0 +1,88 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// disjoncteur autour du service de matching Python
+// FERME : appels normaux ; OUVERT : échec immédiat ; SEMI_OUVERT : un seul appel d'essai
+@Component
+public class MatchingCircuitBreaker {
+
+    public enum Etat { FERME, OUVERT, SEMI_OUVERT }
+
+    private static final Logger log = LoggerFactory.getLogger(MatchingCircuitBreaker.class);
+
+    private final int seuilEchecs;
+    private final long dureeOuvertureMs;
+
+    private Etat etat = Etat.FERME;
+    private int echecsConsecutifs;
+    private long ouvertDepuis;
+    private boolean essaiEnCours;
+
+    private final AtomicLong refus = new AtomicLong();
+    private final AtomicLong ouvertures = new AtomicLong();
+
+    public MatchingCircuitBreaker(@Value("${matching.circuit.failure-threshold:5}") int seuilEchecs,
+                                  @Value("${matching.circuit.open-ms:30000}") long dureeOuvertureMs) {
+        this.seuilEchecs = seuilEchecs;
+        this.dureeOuvertureMs = dureeOuvertureMs;
+    }
+
+    // à appeler avant chaque appel ; lève MatchingIndisponibleException si le circuit est ouvert
+    public synchronized void autoriser() {
+        if (etat == Etat.OUVERT && System.currentTimeMillis() - ouvertDepuis >= dureeOuvertureMs) {
+            etat = Etat.SEMI_OUVERT;
+            essaiEnCours = false;
+        }
+        if (etat == Etat.OUVERT || (etat == Etat.SEMI_OUVERT && essaiEnCours)) {
+            refus.incrementAndGet();
+            throw new MatchingIndisponibleException("Service de matching indisponible");
+        }
+        if (etat == Etat.SEMI_OUVERT) {
+            essaiEnCours = true;
+        }
+    }
+
+    public synchronized void succes() {
+        if (etat != Etat.FERME) {
+            log.info("Service de matching rétabli, fermeture du disjoncteur");
+        }
+        etat = Etat.FERME;
+        echecsConsecutifs = 0;
+        essaiEnCours = false;
+    }
+
+    public synchronized void echec() {
+        echecsConsecutifs++;
+        if (etat == Etat.SEMI_OUVERT || (etat == Etat.FERME && echecsConsecutifs >= seuilEchecs)) {
+            log.warn("Ouverture du disjoncteur du matching après {} échecs consécutifs", echecsConsecutifs);
+            etat = Etat.OUVERT;
+            ouvertDepuis = System.currentTimeMillis();
+            essaiEnCours = false;
+            ouvertures.incrementAndGet();
+        }
+    }
+
+    // vrai si un appel a une chance de passer (circuit fermé ou délai d'ouverture écoulé)
+    public synchronized boolean estDisponible() {
+        return etat == Etat.FERME
+                || (etat == Etat.OUVERT && System.currentTimeMillis() - ouvertDepuis >= dureeOuvertureMs)
+                || (etat == Etat.SEMI_OUVERT && !essaiEnCours);
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("etat", etat);
+        result.put("echecsConsecutifs", echecsConsecutifs);
+        result.put("ouvertures", ouvertures.get());
+        result.put("appelsRefuses", refus.get());
+        return result;
+    }
+}
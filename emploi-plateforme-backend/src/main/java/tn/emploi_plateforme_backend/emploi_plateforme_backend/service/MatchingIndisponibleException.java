@@ -0,0 +1,8 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+// levée sans appel réseau quand le disjoncteur est ouvert ou que le cloisonnement est saturé
+public class MatchingIndisponibleException extends RuntimeException {
+    public MatchingIndisponibleException(String message) {
+        super(message);
+    }
+}
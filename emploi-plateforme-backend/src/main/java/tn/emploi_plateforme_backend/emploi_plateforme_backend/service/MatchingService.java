@@ -1,58 +1,366 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
 
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.*;
-import java.nio.file.Paths;
-import java.io.File;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.util.TexteUtils;
+
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 
 @Service
 public class MatchingService {
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String matchingUrl = "http://localhost:5000/match";
+    private static final Logger log = LoggerFactory.getLogger(MatchingService.class);
 
-    public Double calculateMatchingScore(String cvPathRelative, String offreText) {
+    @Autowired
+    @Qualifier("matchingRestTemplate")
+    private RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("matchingConnectionManager")
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private final String matchingUrl;
+    private final String batchUrl;
+
+    @Autowired
+    private CvTextCache cvTextCache;
+
+    @Autowired
+    private CvIngestionService cvIngestionService;
+
+    @Autowired
+    private ScoreMemoService scoreMemoService;
+
+    @Autowired
+    @Qualifier("matchingExecutor")
+    private ThreadPoolTaskExecutor matchingExecutor;
+
+    @Value("${matching.api.batch-size:25}")
+    private int batchSize;
+
+    // lots en vol pour une même requête, pour qu'un candidat ne monopolise pas le service
+    @Value("${matching.api.max-lots-par-requete:2}")
+    private int maxLotsParRequete;
+
+    @Autowired
+    private MatchingCircuitBreaker circuitBreaker;
+
+    // au-delà de cette attente pour un créneau d'appel, échec immédiat plutôt que file d'attente
+    @Value("${matching.api.bulkhead-wait-ms:500}")
+    private long attenteCloisonnementMs;
+
+    // plafond global d'appels simultanés vers le service Python
+    private final Semaphore appelsSimultanes;
+    private final AtomicLong cloisonnementRefus = new AtomicLong();
+
+    public MatchingService(@Value("${matching.api.base-url:http://localhost:5000}") String baseUrl,
+                           @Value("${matching.api.max-concurrent:8}") int maxConcurrent) {
+        String racine = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.matchingUrl = racine + "/match";
+        this.batchUrl = racine + "/match/cv-jobs-batch";
+        this.appelsSimultanes = new Semaphore(maxConcurrent, true);
+    }
+
+    public static String texteOffre(Offre offre) {
+        return offre.getTitre() + " " + offre.getDescription();
+    }
+
+    // null si le score n'a pas pu être calculé (service indisponible, CV illisible...)
+    public Double calculateMatchingScore(Candidat candidat, String offreText) {
         try {
+            return scoreMemorise(getCvText(candidat), offreText);
+        } catch (MatchingIndisponibleException e) {
+            return null;
+        } catch (Exception e) {
+            log.warn("Erreur lors du calcul du matching", e);
+            return null;
+        }
+    }
 
+    public Double calculateMatchingScore(String cvPathRelative, String offreText) {
+        try {
             String cvPath = Paths.get(cvPathRelative).toAbsolutePath().toString();
-            System.out.println("Chemin absolu du CV: " + cvPath);
+            String cvText = CvIngestionService.normaliser(cvTextCache.getText(cvPath));
+            return scoreMemorise(cvText, offreText);
+        } catch (MatchingIndisponibleException e) {
+            return null;
+        } catch (Exception e) {
+            log.warn("Erreur lors du calcul du matching", e);
+            return null;
+        }
+    }
 
+    public String getVersionModele() {
+        return scoreMemoService.getVersionModele();
+    }
+
+    public boolean estDisponible() {
+        return circuitBreaker.estDisponible();
+    }
 
-            String cvText = extractTextFromPdf(cvPath);
+    // scores d'un CV contre plusieurs offres (idOffre -> score)
+    // les offres qui n'ont pas pu être scorées sont absentes du résultat
+    public Map<Long, Double> calculateMatchingScores(Candidat candidat, List<Offre> offres) {
+        return calculateMatchingScores(candidat, offres, null);
+    }
 
+    public Map<Long, Double> calculateMatchingScores(String cvText, List<Offre> offres) {
+        return calculateMatchingScores(cvText, offres, null);
+    }
+
+    public Map<Long, Double> calculateMatchingScores(Candidat candidat, List<Offre> offres, Duration delai) {
+        String cvText;
+        try {
+            cvText = getCvText(candidat);
+        } catch (Exception e) {
+            log.warn("Texte du CV indisponible pour le candidat {}: {}", candidat.getId(), e.getMessage());
+            return Collections.emptyMap();
+        }
+        return calculateMatchingScores(cvText, offres, delai);
+    }
 
-            MatchRequest request = new MatchRequest(cvText, offreText);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<MatchRequest> entity = new HttpEntity<>(request, headers);
+    // à l'échéance, renvoie les scores déjà obtenus et abandonne les lots restants
+    public Map<Long, Double> calculateMatchingScores(String cvText, List<Offre> offres, Duration delai) {
+        long echeance = delai != null ? System.nanoTime() + delai.toNanos() : Long.MAX_VALUE;
+        Map<Long, Double> scores = new ConcurrentHashMap<>();
+        AtomicBoolean abandonne = new AtomicBoolean(false);
+        Semaphore lotsEnVol = new Semaphore(maxLotsParRequete);
+        List<CompletableFuture<Void>> lots = new ArrayList<>();
 
+        // seuls les couples jamais scorés avec cette version du modèle partent au service
+        String cvHash = TexteUtils.empreinte(cvText);
+        Map<Long, String> offreHashes = new HashMap<>();
+        for (Offre offre : offres) {
+            offreHashes.put(offre.getIdOffre(), TexteUtils.empreinte(texteOffre(offre)));
+        }
+        Map<String, Double> memorises = scoreMemoService.rechercher(cvHash, offreHashes.values());
+        List<Offre> aScorer = new ArrayList<>();
+        for (Offre offre : offres) {
+            Double score = memorises.get(offreHashes.get(offre.getIdOffre()));
+            if (score != null) {
+                scores.put(offre.getIdOffre(), score);
+            } else {
+                aScorer.add(offre);
+            }
+        }
 
-            ResponseEntity<MatchResponse> response = restTemplate.postForEntity(
-                    matchingUrl,
-                    entity,
-                    MatchResponse.class
-            );
+        // circuit ouvert : on se contente des scores mémorisés
+        if (!aScorer.isEmpty() && !circuitBreaker.estDisponible()) {
+            return new HashMap<>(scores);
+        }
 
-            return response.getBody() != null ? response.getBody().getScore() : 0.0;
+        try {
+            for (int i = 0; i < aScorer.size(); i += batchSize) {
+                if (!acquerirAvant(lotsEnVol, echeance)) {
+                    break;
+                }
+                List<Offre> lot = aScorer.subList(i, Math.min(i + batchSize, aScorer.size()));
+                lots.add(CompletableFuture
+                        .runAsync(() -> {
+                            if (!abandonne.get()) {
+                                Map<Long, Double> obtenus = scorerLotIsole(cvText, lot, echeance);
+                                scores.putAll(obtenus);
+                                Map<String, Double> aMemoriser = new HashMap<>();
+                                obtenus.forEach((id, score) -> aMemoriser.put(offreHashes.get(id), score));
+                                scoreMemoService.enregistrer(cvHash, aMemoriser);
+                            }
+                        }, matchingExecutor)
+                        .whenComplete((r, e) -> lotsEnVol.release()));
+            }
+
+            CompletableFuture<Void> tous = CompletableFuture.allOf(lots.toArray(new CompletableFuture[0]));
+            if (echeance == Long.MAX_VALUE) {
+                tous.join();
+            } else {
+                tous.get(Math.max(0, echeance - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            log.info("Échéance atteinte: {} scores sur {} offres", scores.size(), offres.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Erreur lors du matching par lots: {}", e.getMessage());
+        } finally {
+            abandonne.set(true);
+        }
+        return new HashMap<>(scores);
+    }
+
+    // texte persisté à l'upload si disponible, sinon extraction via le cache
+    public String getCvText(Candidat candidat) throws IOException {
+        String texte = cvIngestionService.getTexteExtrait(candidat);
+        if (texte != null) {
+            return texte;
+        }
+        String cvPath = Paths.get(candidat.getCvPath()).toAbsolutePath().toString();
+        return CvIngestionService.normaliser(cvTextCache.getText(cvPath));
+    }
+
+    public Map<String, Object> getPoolStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("leased", stats.getLeased());
+        result.put("pending", stats.getPending());
+        result.put("available", stats.getAvailable());
+        result.put("max", stats.getMax());
+        result.put("maxParRoute", connectionManager.getDefaultMaxPerRoute());
+        result.put("appelsDisponibles", appelsSimultanes.availablePermits());
+        result.put("appelsEnAttente", appelsSimultanes.getQueueLength());
+        result.put("refusCloisonnement", cloisonnementRefus.get());
+        return result;
+    }
+
+    private Double scoreMemorise(String cvText, String offreText) throws InterruptedException {
+        String cvHash = TexteUtils.empreinte(cvText);
+        String offreHash = TexteUtils.empreinte(offreText);
+        Double score = scoreMemoService.rechercher(cvHash, offreHash);
+        if (score == null) {
+            score = calculateMatchingScoreFromText(cvText, offreText);
+            if (score == null) return null;
+            scoreMemoService.enregistrer(cvHash, offreHash, score);
+        }
+        return score;
+    }
+
+    private Double calculateMatchingScoreFromText(String cvText, String offreText) throws InterruptedException {
+        return appelProtege(() -> appelerMatch(cvText, offreText));
+    }
 
+    // cloisonnement (nombre d'appels simultanés borné, attente courte) puis disjoncteur
+    private <T> T appelProtege(Supplier<T> appel) throws InterruptedException {
+        if (!appelsSimultanes.tryAcquire(attenteCloisonnementMs, TimeUnit.MILLISECONDS)) {
+            cloisonnementRefus.incrementAndGet();
+            throw new MatchingIndisponibleException("Trop d'appels simultanés au service de matching");
+        }
+        try {
+            circuitBreaker.autoriser();
+            try {
+                T resultat = appel.get();
+                circuitBreaker.succes();
+                return resultat;
+            } catch (HttpClientErrorException e) {
+                // une erreur 4xx vient d'un service qui répond : elle n'ouvre pas le circuit
+                circuitBreaker.succes();
+                throw e;
+            } catch (RuntimeException e) {
+                circuitBreaker.echec();
+                throw e;
+            }
+        } finally {
+            appelsSimultanes.release();
+        }
+    }
+
+    private Double appelerMatch(String cvText, String offreText) {
+        MatchRequest request = new MatchRequest(cvText, offreText);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<MatchRequest> entity = new HttpEntity<>(request, headers);
+
+
+        ResponseEntity<MatchResponse> response = restTemplate.postForEntity(
+                matchingUrl,
+                entity,
+                MatchResponse.class
+        );
+
+        // réponse vide : pas de score, pour ne pas mémoriser un 0 factice
+        return response.getBody() != null ? response.getBody().getScore() : null;
+    }
+
+    // un lot en échec est rejoué offre par offre pour isoler l'offre fautive
+    private Map<Long, Double> scorerLotIsole(String cvText, List<Offre> lot, long echeance) {
+        try {
+            return scorerLot(cvText, lot);
+        } catch (MatchingIndisponibleException e) {
+            return Collections.emptyMap();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyMap();
         } catch (Exception e) {
-            System.err.println("Erreur lors du calcul du matching: " + e.getMessage());
-            return 0.0;
+            log.warn("Échec du matching batch pour {} offres: {}", lot.size(), e.getMessage());
         }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (Offre offre : lot) {
+            if (System.nanoTime() >= echeance) break;
+            try {
+                Double score = calculateMatchingScoreFromText(cvText, texteOffre(offre));
+                if (score != null) {
+                    scores.put(offre.getIdOffre(), score);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (MatchingIndisponibleException e) {
+                break;
+            } catch (Exception e) {
+                log.warn("Échec du matching pour l'offre {}: {}", offre.getIdOffre(), e.getMessage());
+            }
+        }
+        return scores;
     }
 
+    private Map<Long, Double> scorerLot(String cvText, List<Offre> lot) throws InterruptedException {
+        List<BatchJob> jobs = new ArrayList<>(lot.size());
+        for (Offre offre : lot) {
+            jobs.add(new BatchJob(offre.getIdOffre(), texteOffre(offre)));
+        }
 
-    private String extractTextFromPdf(String filePath) throws IOException {
-        try (PDDocument document = PDDocument.load(new File(filePath))) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<BatchRequest> entity = new HttpEntity<>(new BatchRequest(cvText, jobs), headers);
+
+        ResponseEntity<BatchResponse> response = appelProtege(
+                () -> restTemplate.postForEntity(batchUrl, entity, BatchResponse.class));
+
+        Map<Long, Double> scores = new HashMap<>();
+        if (response.getBody() != null && response.getBody().getMatches() != null) {
+            for (BatchMatch match : response.getBody().getMatches()) {
+                // l'endpoint batch renvoie un pourcentage, /match un ratio
+                scores.put(match.getJobId(), match.getScore() != null ? match.getScore() / 100.0 : 0.0);
+            }
         }
+        return scores;
+    }
+
+    private static boolean acquerirAvant(Semaphore semaphore, long echeance) throws InterruptedException {
+        if (echeance == Long.MAX_VALUE) {
+            semaphore.acquire();
+            return true;
+        }
+        return semaphore.tryAcquire(Math.max(0, echeance - System.nanoTime()), TimeUnit.NANOSECONDS);
     }
 
 
@@ -79,4 +387,59 @@ public class MatchingService {
         public Double getScore() { return score; }
         public void setScore(Double score) { this.score = score; }
     }
+
+
+    public static class BatchRequest {
+        @JsonProperty("cv_text")
+        private String cvText;
+
+        private List<BatchJob> jobs;
+
+        public BatchRequest(String cvText, List<BatchJob> jobs) {
+            this.cvText = cvText;
+            this.jobs = jobs;
+        }
+
+        public String getCvText() { return cvText; }
+        public List<BatchJob> getJobs() { return jobs; }
+    }
+
+
+    public static class BatchJob {
+        @JsonProperty("job_id")
+        private Long jobId;
+
+        @JsonProperty("offre_text")
+        private String offreText;
+
+        public BatchJob(Long jobId, String offreText) {
+            this.jobId = jobId;
+            this.offreText = offreText;
+        }
+
+        public Long getJobId() { return jobId; }
+        public String getOffreText() { return offreText; }
+    }
+
+
+    public static class BatchResponse {
+        private List<BatchMatch> matches;
+
+        public List<BatchMatch> getMatches() { return matches; }
+        public void setMatches(List<BatchMatch> matches) { this.matches = matches; }
+    }
+
+
+    public static class BatchMatch {
+        @JsonProperty("job_id")
+        private Long jobId;
+
+        private Double score;
+
+        public Long getJobId() { return jobId; }
+        public void setJobId(Long jobId) { this.jobId = jobId; }
+
+        public Double getScore() { return score; }
+        public void setScore(Double score) { this.score = score; }
+    }
 }
@@ -0,0 +1,341 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.fr.FrenchLightStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.ElisionFilter;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffresExpireesEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// index plein texte des offres actives (Lucene, en mémoire) sur titre, description et localisation
+// accents repliés, racinisation légère du français, classement BM25 ; reconstruit depuis la base au démarrage
+@Service
+public class OffreRechercheIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OffreRechercheIndex.class);
+
+    private static final String ID = "id";
+    private static final String TITRE = "titre";
+    private static final String DESCRIPTION = "description";
+    // mêmes textes non racinisés, pour le mot en cours de frappe (préfixe)
+    private static final String TITRE_MOTS = "titre_mots";
+    private static final String DESCRIPTION_MOTS = "description_mots";
+    private static final String LOCALISATION = "localisation";
+    private static final String DATE_PUBLICATION = "date_publication";
+
+    private static final int LONGUEUR_MIN_PREFIXE = 2;
+    private static final int MAX_RESULTATS = 10_000;
+
+    // pertinence d'abord, puis les offres les plus récentes
+    private static final Sort TRI = new Sort(SortField.FIELD_SCORE,
+            new SortField(DATE_PUBLICATION, SortField.Type.LONG, true));
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    private final Analyzer analyseurFrancais = analyseur(true);
+    private final Analyzer analyseurMots = analyseur(false);
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // une reconstruction exclut les mises à jour unitaires
+    private final Object ecriture = new Object();
+
+    private final AtomicLong recherches = new AtomicLong();
+    private final AtomicLong rechercheNanos = new AtomicLong();
+    private final AtomicLong misesAJour = new AtomicLong();
+    private volatile LocalDateTime derniereReconstruction;
+
+    public OffreRechercheIndex() {
+        Analyzer parChamp = new PerFieldAnalyzerWrapper(analyseurMots,
+                Map.of(TITRE, analyseurFrancais, DESCRIPTION, analyseurFrancais));
+        try {
+            this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(parChamp));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void fermer() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruire() {
+        synchronized (ecriture) {
+            List<Offre> offres = offreRepository.findByEtat(StatutOffre.ACTIVE);
+            try {
+                writer.deleteAll();
+                for (Offre offre : offres) {
+                    writer.addDocument(document(offre));
+                }
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            derniereReconstruction = LocalDateTime.now();
+            log.info("Index de recherche des offres reconstruit: {} offres", offres.size());
+        }
+    }
+
+    // ordre 0 : OffresPubliquesCache s'appuie sur l'index avant et après sa mise à jour
+    @EventListener
+    @Order(0)
+    public void onOffreModifiee(OffreModifieeEvent event) {
+        synchronized (ecriture) {
+            // lu sous le verrou : deux modifications rapprochées s'appliquent dans l'ordre
+            Offre offre = offreRepository.findById(event.offreId()).orElse(null);
+            try {
+                if (offre != null && offre.getEtat() == StatutOffre.ACTIVE) {
+                    writer.updateDocument(new Term(ID, offre.getIdOffre().toString()), document(offre));
+                } else {
+                    writer.deleteDocuments(new Term(ID, event.offreId().toString()));
+                }
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                log.warn("Mise à jour de l'index de recherche impossible pour l'offre {}: {}",
+                        event.offreId(), e.getMessage());
+            }
+        }
+        misesAJour.incrementAndGet();
+    }
+
+    @EventListener
+    @Order(0)
+    public void onOffreSupprimee(OffreSupprimeeEvent event) {
+        synchronized (ecriture) {
+            try {
+                writer.deleteDocuments(new Term(ID, event.offreId().toString()));
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                log.warn("Suppression de l'offre {} de l'index de recherche impossible: {}",
+                        event.offreId(), e.getMessage());
+            }
+        }
+        misesAJour.incrementAndGet();
+    }
+
+    @EventListener
+    @Order(0)
+    public void onOffresExpirees(OffresExpireesEvent event) {
+        synchronized (ecriture) {
+            try {
+                for (Long offreId : event.offreIds()) {
+                    writer.deleteDocuments(new Term(ID, offreId.toString()));
+                }
+                searcherManager.maybeRefresh();
+            } catch (IOException e) {
+                log.warn("Retrait des offres expirées de l'index de recherche impossible: {}", e.getMessage());
+            }
+        }
+        misesAJour.addAndGet(event.offreIds().size());
+    }
+
+    // ids des offres actives correspondantes, les plus pertinentes d'abord
+    // chaque mot du titre doit apparaître dans le titre ou la description ; le dernier peut être incomplet
+    public Page<Long> rechercher(String titre, String localisation, Pageable pageable) {
+        long debut = System.nanoTime();
+        Query requete = requete(titre, localisation);
+        List<Long> ids = new ArrayList<>();
+        long total;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int n = (int) Math.min(MAX_RESULTATS, pageable.getOffset() + pageable.getPageSize());
+                total = Math.min(MAX_RESULTATS, searcher.count(requete));
+                if (pageable.getOffset() < n) {
+                    TopFieldDocs top = searcher.search(requete, n, TRI);
+                    StoredFields documents = searcher.storedFields();
+                    for (int i = (int) pageable.getOffset(); i < top.scoreDocs.length; i++) {
+                        ids.add(Long.parseLong(documents.document(top.scoreDocs[i].doc).get(ID)));
+                    }
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        recherches.incrementAndGet();
+        rechercheNanos.addAndGet(System.nanoTime() - debut);
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    // l'une des offres fait-elle partie des résultats de cette recherche, dans l'état actuel de l'index
+    public boolean correspond(Collection<Long> offreIds, String titre, String localisation) {
+        List<BytesRef> ids = offreIds.stream().map(id -> new BytesRef(id.toString())).toList();
+        Query requete = new BooleanQuery.Builder()
+                .add(requete(titre, localisation), BooleanClause.Occur.MUST)
+                .add(new TermInSetQuery(ID, ids), BooleanClause.Occur.FILTER)
+                .build();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                return searcher.count(requete) > 0;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long n = recherches.get();
+        stats.put("offresIndexees", writer.getDocStats().numDocs);
+        stats.put("recherches", n);
+        stats.put("latenceMoyenneMs", n == 0 ? 0.0 : rechercheNanos.get() / 1_000_000.0 / n);
+        stats.put("misesAJour", misesAJour.get());
+        stats.put("derniereReconstruction", derniereReconstruction);
+        return stats;
+    }
+
+    private Query requete(String titre, String localisation) {
+        BooleanQuery.Builder requete = new BooleanQuery.Builder();
+        boolean vide = true;
+
+        List<String> mots = analyser(analyseurMots, titre);
+        for (int i = 0; i < mots.size(); i++) {
+            String mot = mots.get(i);
+            List<String> racines = analyser(analyseurFrancais, mot);
+            boolean prefixe = i == mots.size() - 1 && mot.length() >= LONGUEUR_MIN_PREFIXE;
+            // mot vide ("de", "la"...) : ignoré sauf s'il peut être le début d'un mot plus long
+            if (racines.isEmpty() && !prefixe) continue;
+
+            BooleanQuery.Builder unMot = new BooleanQuery.Builder();
+            for (String racine : racines) {
+                unMot.add(new BoostQuery(new TermQuery(new Term(TITRE, racine)), 3f), BooleanClause.Occur.SHOULD);
+                unMot.add(new TermQuery(new Term(DESCRIPTION, racine)), BooleanClause.Occur.SHOULD);
+            }
+            if (prefixe) {
+                unMot.add(new BoostQuery(new PrefixQuery(new Term(TITRE_MOTS, mot)), 2f), BooleanClause.Occur.SHOULD);
+                unMot.add(new PrefixQuery(new Term(DESCRIPTION_MOTS, mot)), BooleanClause.Occur.SHOULD);
+            }
+            requete.add(unMot.build(), BooleanClause.Occur.MUST);
+            vide = false;
+        }
+
+        for (String mot : analyser(analyseurMots, localisation)) {
+            requete.add(new PrefixQuery(new Term(LOCALISATION, mot)), BooleanClause.Occur.MUST);
+            vide = false;
+        }
+        return vide ? new MatchAllDocsQuery() : requete.build();
+    }
+
+    private static Document document(Offre offre) {
+        String titre = offre.getTitre() != null ? offre.getTitre() : "";
+        String description = offre.getDescription() != null ? offre.getDescription() : "";
+        Document doc = new Document();
+        doc.add(new StringField(ID, offre.getIdOffre().toString(), Field.Store.YES));
+        doc.add(new TextField(TITRE, titre, Field.Store.NO));
+        doc.add(new TextField(TITRE_MOTS, titre, Field.Store.NO));
+        doc.add(new TextField(DESCRIPTION, description, Field.Store.NO));
+        doc.add(new TextField(DESCRIPTION_MOTS, description, Field.Store.NO));
+        doc.add(new TextField(LOCALISATION, offre.getLocalisation() != null ? offre.getLocalisation() : "", Field.Store.NO));
+        doc.add(new NumericDocValuesField(DATE_PUBLICATION,
+                offre.getDatePublication() != null ? offre.getDatePublication().toEpochDay() : 0L));
+        return doc;
+    }
+
+    // "L'Ingénieur Développement" -> [ingenieur, developpement] ; version racinisée : mots vides retirés,
+    // pluriels et féminins ramenés à une même forme
+    private static Analyzer analyseur(boolean raciniser) {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String champ) {
+                Tokenizer source = new StandardTokenizer();
+                TokenStream flux = new ElisionFilter(source, FrenchAnalyzer.DEFAULT_ARTICLES);
+                flux = new LowerCaseFilter(flux);
+                if (raciniser) {
+                    flux = new StopFilter(flux, FrenchAnalyzer.getDefaultStopSet());
+                }
+                flux = new ASCIIFoldingFilter(flux);
+                if (raciniser) {
+                    flux = new FrenchLightStemFilter(flux);
+                }
+                return new TokenStreamComponents(source, flux);
+            }
+
+            @Override
+            protected TokenStream normalize(String champ, TokenStream in) {
+                return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+            }
+        };
+    }
+
+    private static List<String> analyser(Analyzer analyseur, String texte) {
+        List<String> termes = new ArrayList<>();
+        if (texte == null || texte.isBlank()) return termes;
+        try (TokenStream flux = analyseur.tokenStream("", texte)) {
+            CharTermAttribute terme = flux.addAttribute(CharTermAttribute.class);
+            flux.reset();
+            while (flux.incrementToken()) {
+                termes.add(terme.toString());
+            }
+            flux.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return termes;
+    }
+}
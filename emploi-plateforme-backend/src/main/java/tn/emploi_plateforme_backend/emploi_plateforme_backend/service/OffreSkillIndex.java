@@ -0,0 +1,252 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffresExpireesEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.util.TexteUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// index inversé terme -> offres actives, pour présélectionner les offres avant le scoring distant
+@Service
+public class OffreSkillIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OffreSkillIndex.class);
+
+    private static final Pattern TOKEN = Pattern.compile("\\.?[a-z0-9][a-z0-9+#.]*");
+
+    // vocabulaire du service Python (compétences, diplômes, langues), pondéré plus fort
+    private static final Set<String> TERMES_METIER = Set.of(
+            "python", "java", "javascript", "react", "spring boot", "mysql", "html", "css", "node.js", "angular",
+            "vue.js", "php", "c++", "c#", ".net", "pandas", "numpy", "scikit-learn", "tensorflow", "pytorch",
+            "sql", "mongodb", "postgresql", "spark", "hadoop", "docker", "kubernetes", "jenkins", "git", "gitlab",
+            "aws", "azure", "linux", "nginx", "apache", "photoshop", "illustrator", "figma", "sketch", "indesign",
+            "canva", "google analytics", "facebook ads", "seo", "sem", "content marketing", "social media",
+            "excel", "sap", "sage", "quickbooks", "powerbi", "tableau",
+            "francais", "anglais", "espagnol", "allemand", "italien", "arabe", "chinois",
+            "master", "mastere", "licence", "doctorat", "phd", "docteur", "ingenieur", "bts", "dut", "deust",
+            "baccalaureat", "bac");
+    private static final List<String> EXPRESSIONS = TERMES_METIER.stream()
+            .filter(t -> t.contains(" ") || t.contains("-"))
+            .toList();
+    private static final double POIDS_METIER = 3.0;
+
+    private static final Set<String> MOTS_VIDES = Set.of(
+            "le", "la", "les", "un", "une", "des", "de", "du", "et", "ou", "en", "au", "aux", "a", "pour", "par",
+            "sur", "dans", "avec", "sans", "que", "qui", "est", "sont", "nous", "vous", "il", "elle", "ils",
+            "ce", "cette", "ces", "son", "sa", "ses", "leur", "leurs", "votre", "notre", "plus", "tres", "etre",
+            "avoir", "the", "and", "or", "of", "to", "in", "for", "with", "on", "at", "by", "an", "is", "are",
+            "be", "as", "we", "you", "our", "your");
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    @Value("${recommandation.shortlist.taille:200}")
+    private int tailleShortlist;
+
+    private final Map<String, Set<Long>> offresParTerme = new HashMap<>();
+    private final Map<Long, Set<String>> termesParOffre = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    private final AtomicLong preselections = new AtomicLong();
+    private final AtomicLong preselectionNanos = new AtomicLong();
+    private final AtomicLong offresEnEntree = new AtomicLong();
+    private final AtomicLong offresRetenues = new AtomicLong();
+    private final AtomicLong mesuresRappel = new AtomicLong();
+    private final AtomicLong sommeRappelMillioniemes = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construire() {
+        List<Offre> offres = offreRepository.findByEtat(StatutOffre.ACTIVE);
+        verrou.writeLock().lock();
+        try {
+            offresParTerme.clear();
+            termesParOffre.clear();
+            for (Offre offre : offres) {
+                ajouter(offre);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Index des offres construit: {} offres, {} termes", offres.size(), offresParTerme.size());
+    }
+
+    @EventListener
+    public void onOffreModifiee(OffreModifieeEvent event) {
+        Offre offre = offreRepository.findById(event.offreId()).orElse(null);
+        verrou.writeLock().lock();
+        try {
+            retirer(event.offreId());
+            if (offre != null && offre.getEtat() == StatutOffre.ACTIVE) {
+                ajouter(offre);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onOffresExpirees(OffresExpireesEvent event) {
+        verrou.writeLock().lock();
+        try {
+            event.offreIds().forEach(this::retirer);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onOffreSupprimee(OffreSupprimeeEvent event) {
+        verrou.writeLock().lock();
+        try {
+            retirer(event.offreId());
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    // garde les offres qui partagent le plus de termes (pondérés idf) avec le CV
+    public List<Offre> preselectionner(String cvText, List<Offre> offres) {
+        if (tailleShortlist <= 0) {
+            return offres;
+        }
+
+        long debut = System.nanoTime();
+        Map<Long, Double> pertinence = pertinences(cvText);
+
+        List<Offre> retenues = offres.stream()
+                .filter(o -> pertinence.containsKey(o.getIdOffre()))
+                .sorted(Comparator.comparingDouble((Offre o) -> pertinence.get(o.getIdOffre())).reversed())
+                .limit(tailleShortlist)
+                .toList();
+
+        preselections.incrementAndGet();
+        preselectionNanos.addAndGet(System.nanoTime() - debut);
+        offresEnEntree.addAndGet(offres.size());
+        offresRetenues.addAndGet(retenues.size());
+        return retenues;
+    }
+
+    // l'offre entrerait-elle dans la présélection de ce CV : sens inverse, une offre contre plusieurs CV
+    public boolean retient(String cvText, Long offreId) {
+        if (tailleShortlist <= 0) {
+            return true;
+        }
+        Map<Long, Double> pertinence = pertinences(cvText);
+        Double cible = pertinence.get(offreId);
+        if (cible == null) return false;
+        long devant = pertinence.values().stream().filter(p -> p > cible).count();
+        return devant < tailleShortlist;
+    }
+
+    // rappel@K mesuré sur un échantillon : part du vrai top-K présente dans la présélection
+    public void enregistrerRappel(double rappel) {
+        mesuresRappel.incrementAndGet();
+        sommeRappelMillioniemes.addAndGet(Math.round(rappel * 1_000_000));
+    }
+
+    // offres actives partageant au moins un terme avec le CV, et leur pertinence (termes pondérés idf)
+    private Map<Long, Double> pertinences(String cvText) {
+        Map<Long, Double> pertinence = new HashMap<>();
+        verrou.readLock().lock();
+        try {
+            double total = Math.max(1, termesParOffre.size());
+            for (String terme : termes(cvText)) {
+                Set<Long> postings = offresParTerme.get(terme);
+                if (postings == null) continue;
+
+                double poids = Math.log(1 + total / postings.size())
+                        * (TERMES_METIER.contains(terme) ? POIDS_METIER : 1.0);
+                for (Long offreId : postings) {
+                    pertinence.merge(offreId, poids, Double::sum);
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+        return pertinence;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        verrou.readLock().lock();
+        try {
+            stats.put("offresIndexees", termesParOffre.size());
+            stats.put("termes", offresParTerme.size());
+        } finally {
+            verrou.readLock().unlock();
+        }
+        long n = preselections.get();
+        long mesures = mesuresRappel.get();
+        stats.put("tailleShortlist", tailleShortlist);
+        stats.put("preselections", n);
+        stats.put("latenceMoyenneMs", n == 0 ? 0.0 : preselectionNanos.get() / 1_000_000.0 / n);
+        stats.put("offresEnEntreeMoyenne", n == 0 ? 0.0 : (double) offresEnEntree.get() / n);
+        stats.put("offresRetenuesMoyenne", n == 0 ? 0.0 : (double) offresRetenues.get() / n);
+        stats.put("mesuresRappel", mesures);
+        stats.put("rappelMoyen", mesures == 0 ? null : sommeRappelMillioniemes.get() / 1_000_000.0 / mesures);
+        return stats;
+    }
+
+    private void ajouter(Offre offre) {
+        Set<String> termes = termes(offre.getTitre() + " " + offre.getDescription());
+        termesParOffre.put(offre.getIdOffre(), termes);
+        for (String terme : termes) {
+            offresParTerme.computeIfAbsent(terme, t -> new HashSet<>()).add(offre.getIdOffre());
+        }
+    }
+
+    private void retirer(Long offreId) {
+        Set<String> termes = termesParOffre.remove(offreId);
+        if (termes == null) return;
+        for (String terme : termes) {
+            Set<Long> postings = offresParTerme.get(terme);
+            if (postings != null) {
+                postings.remove(offreId);
+                if (postings.isEmpty()) {
+                    offresParTerme.remove(terme);
+                }
+            }
+        }
+    }
+
+    static Set<String> termes(String texte) {
+        String plie = TexteUtils.plier(texte);
+        Set<String> termes = new HashSet<>();
+
+        Matcher matcher = TOKEN.matcher(plie);
+        while (matcher.find()) {
+            String token = matcher.group();
+            while (token.endsWith(".")) {
+                token = token.substring(0, token.length() - 1);
+            }
+            if (token.length() >= 2 && !MOTS_VIDES.contains(token)) {
+                termes.add(token);
+            }
+        }
+
+        String espaces = plie.replaceAll("\\s+", " ");
+        for (String expression : EXPRESSIONS) {
+            if (espaces.contains(expression) || espaces.contains(expression.replace(" ", ""))
+                    || espaces.contains(expression.replace(" ", "-"))) {
+                termes.add(expression);
+            }
+        }
+        return termes;
+    }
+}
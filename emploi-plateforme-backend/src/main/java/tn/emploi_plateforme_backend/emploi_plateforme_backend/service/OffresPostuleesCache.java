@@ -0,0 +1,66 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CandidatureSoumiseEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatureRepository;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// ids des offres auxquelles chaque candidat a postulé, en tableau trié de long (recherche dichotomique)
+@Service
+public class OffresPostuleesCache {
+
+    @Autowired
+    private CandidatureRepository candidatureRepository;
+
+    private final LoadingCache<Long, long[]> offresParCandidat;
+
+    public OffresPostuleesCache(@Value("${candidature.applied-cache.max-candidats:50000}") long maxCandidats,
+                                @Value("${candidature.applied-cache.expire-minutes:30}") long expirationMinutes) {
+        this.offresParCandidat = Caffeine.newBuilder()
+                .maximumSize(maxCandidats)
+                .expireAfterAccess(Duration.ofMinutes(expirationMinutes))
+                .build(this::charger);
+    }
+
+    public boolean aPostule(Long candidatId, Long offreId) {
+        return Arrays.binarySearch(offresParCandidat.get(candidatId), offreId) >= 0;
+    }
+
+    public Set<Long> filtrerPostulees(Long candidatId, Collection<Long> offreIds) {
+        long[] postulees = offresParCandidat.get(candidatId);
+        Set<Long> result = new LinkedHashSet<>();
+        for (Long offreId : offreIds) {
+            if (offreId != null && Arrays.binarySearch(postulees, offreId) >= 0) {
+                result.add(offreId);
+            }
+        }
+        return result;
+    }
+
+    public void invalider(Long candidatId) {
+        offresParCandidat.invalidate(candidatId);
+    }
+
+    // après commit seulement : un rechargement concurrent ne peut pas remettre l'ancien ensemble
+    @TransactionalEventListener
+    public void onCandidatureSoumise(CandidatureSoumiseEvent event) {
+        invalider(event.candidatId());
+    }
+
+    private long[] charger(Long candidatId) {
+        return candidatureRepository.findOffreIdsByCandidatId(candidatId).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,206 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.AvecEtag;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreResumeDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffresExpireesEvent;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// pages de la liste publique des offres, liste des offres actives et détail d'une offre, avec leur ETag
+// un seul chargement par clé à la fois : les requêtes identiques concurrentes attendent le même résultat
+// invalidé à chaque création, modification ou suppression d'offre ; le TTL borne les cas non couverts
+// (chargement en vol pendant l'invalidation, offre sortie d'une recherche alors qu'elle était sur une page non cachée)
+// ETag tiré de compteurs incrémentés par les mêmes événements et conservés après éviction :
+// un If-None-Match se vérifie sans charger l'offre ni la liste
+@Service
+public class OffresPubliquesCache {
+
+    @Autowired
+    private OffreRechercheIndex offreRechercheIndex;
+
+    private final Cache<CleListe, AvecEtag<Page<OffreResumeDTO>>> pages;
+    private final Cache<Long, AvecEtag<OffreResumeDTO>> details;
+    private final Cache<Boolean, AvecEtag<List<OffreResumeDTO>>> actives;
+
+    // propres au nœud : tirage au démarrage pour ne pas reprendre les ETags d'avant un redémarrage,
+    // période du TTL pour borner, comme le contenu caché, les modifications faites sur un autre nœud
+    private final String demarrage = UUID.randomUUID().toString();
+    private final long periodeMs;
+    // toute modification d'offre : listes et pages
+    private final AtomicLong generation = new AtomicLong();
+    // invaliderTout : toutes les réponses, détails compris
+    private final AtomicLong epoque = new AtomicLong();
+    private final Map<Long, Long> versionsOffres = new ConcurrentHashMap<>();
+
+    // critères normalisés : "Java " et "java" partagent la même entrée
+    public record CleListe(String titre, String localisation, int page, int size) {
+
+        public static CleListe de(String titre, String localisation, int page, int size) {
+            return new CleListe(normaliser(titre), normaliser(localisation), page, size);
+        }
+
+        boolean sansCritere() {
+            return titre == null && localisation == null;
+        }
+
+        private static String normaliser(String critere) {
+            if (critere == null || critere.isBlank()) return null;
+            return critere.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public OffresPubliquesCache(@Value("${offre.cache-public.max-pages:5000}") long maxPages,
+                                @Value("${offre.cache-public.max-details:20000}") long maxDetails,
+                                @Value("${offre.cache-public.ttl-secondes:120}") long ttlSecondes) {
+        Duration ttl = Duration.ofSeconds(ttlSecondes);
+        this.periodeMs = Math.max(1000, ttl.toMillis());
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxDetails)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.actives = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // ETag lu avant le chargement : une modification pendant le chargement donne un ETag différent au suivant
+    public AvecEtag<Page<OffreResumeDTO>> page(CleListe cle, Function<CleListe, Page<OffreResumeDTO>> chargement) {
+        return pages.get(cle, c -> {
+            String etag = etagPage(c);
+            return new AvecEtag<>(chargement.apply(c), etag);
+        });
+    }
+
+    public AvecEtag<OffreResumeDTO> detail(Long offreId, Function<Long, OffreResumeDTO> chargement) {
+        return details.get(offreId, id -> {
+            String etag = etagDetail(id);
+            return new AvecEtag<>(chargement.apply(id), etag);
+        });
+    }
+
+    public AvecEtag<List<OffreResumeDTO>> actives(Supplier<List<OffreResumeDTO>> chargement) {
+        return actives.get(Boolean.TRUE, cle -> {
+            String etag = etagActives();
+            return new AvecEtag<>(chargement.get(), etag);
+        });
+    }
+
+    public String etagPage(CleListe cle) {
+        return AvecEtag.etiqueter("page|" + cle + "|" + jeton(generation.get()));
+    }
+
+    public String etagDetail(Long offreId) {
+        return AvecEtag.etiqueter("offre|" + offreId + "|" + jeton(versionsOffres.getOrDefault(offreId, 0L)));
+    }
+
+    public String etagActives() {
+        return AvecEtag.etiqueter("actives|" + jeton(generation.get()));
+    }
+
+    public void invaliderTout() {
+        epoque.incrementAndGet();
+        pages.invalidateAll();
+        details.invalidateAll();
+        actives.invalidateAll();
+    }
+
+    // après l'index de recherche : les critères sont évalués sur la nouvelle version de l'offre
+    @EventListener
+    @Order(1)
+    public void onOffreModifiee(OffreModifieeEvent event) {
+        invalider(Set.of(event.offreId()), event.visibiliteModifiee());
+    }
+
+    // avant l'index de recherche : l'offre y est encore, on retrouve les recherches qu'elle touchait
+    @EventListener
+    @Order(-1)
+    public void onOffreSupprimee(OffreSupprimeeEvent event) {
+        invalider(Set.of(event.offreId()), true);
+    }
+
+    // avant l'index de recherche, comme une suppression
+    @EventListener
+    @Order(-1)
+    public void onOffresExpirees(OffresExpireesEvent event) {
+        invalider(event.offreIds(), true);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("pages", statistiques(pages.estimatedSize(), pages.stats()));
+        result.put("details", statistiques(details.estimatedSize(), details.stats()));
+        result.put("actives", statistiques(actives.estimatedSize(), actives.stats()));
+        result.put("generation", generation.get());
+        return result;
+    }
+
+    private void invalider(Set<Long> offreIds, boolean visibiliteModifiee) {
+        // compteurs avant les entrées : un chargement qui suit l'éviction lit déjà les nouvelles valeurs
+        offreIds.forEach(id -> versionsOffres.merge(id, 1L, Long::sum));
+        generation.incrementAndGet();
+        details.invalidateAll(offreIds);
+        actives.invalidateAll();
+
+        // une recherche (titre, localisation) est invalidée en entier : un ajout ou un retrait décale toutes ses pages
+        Map<CleListe, Boolean> recherches = new HashMap<>();
+        pages.asMap().forEach((cle, page) -> {
+            CleListe recherche = new CleListe(cle.titre(), cle.localisation(), 0, 0);
+            if (page.contenu().getContent().stream().anyMatch(offre -> offreIds.contains(offre.getIdOffre()))) {
+                recherches.put(recherche, true);
+            }
+        });
+        pages.asMap().keySet().removeIf(cle -> recherches.computeIfAbsent(
+                new CleListe(cle.titre(), cle.localisation(), 0, 0),
+                recherche -> touchee(recherche, offreIds, visibiliteModifiee)));
+    }
+
+    private String jeton(long version) {
+        return demarrage + "|" + epoque.get() + "|" + version + "|" + System.currentTimeMillis() / periodeMs;
+    }
+
+    private boolean touchee(CleListe recherche, Set<Long> offreIds, boolean visibiliteModifiee) {
+        // sans critère : l'ordre ne dépend pas du contenu, seule l'entrée ou la sortie d'une offre compte
+        if (recherche.sansCritere()) return visibiliteModifiee;
+        return offreRechercheIndex.correspond(offreIds, recherche.titre(), recherche.localisation());
+    }
+
+    private static Map<String, Object> statistiques(long taille, CacheStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entrees", taille);
+        result.put("hits", stats.hitCount());
+        result.put("chargements", stats.loadCount());
+        result.put("tauxHit", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -8,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.*;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CvModifieEvent;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.UtilisateurRepository;
 
 import java.io.IOException;
@@ -16,6 +18,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class ProfileService {
@@ -23,6 +29,21 @@ public class ProfileService {
     @Autowired
     private UtilisateurRepository utilisateurRepository;
 
+    @Autowired
+    private CvTextCache cvTextCache;
+
+    @Autowired
+    private CvIngestionService cvIngestionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ClassementCandidaturesCache classementCandidaturesCache;
+
+    @Autowired
+    private OffresPubliquesCache offresPubliquesCache;
+
     private final String uploadDir = "uploads/cv/";
 
     public ProfileService() {
@@ -53,7 +74,9 @@ public class ProfileService {
         candidat.setCin(updatedProfile.getCin());
         candidat.setFonctionActuelle(updatedProfile.getFonctionActuelle());
 
-        return utilisateurRepository.save(candidat);
+        Utilisateur saved = utilisateurRepository.save(candidat);
+        classementCandidaturesCache.invaliderCandidat(candidat.getId());
+        return saved;
     }
 
     public Utilisateur updateEmployeurProfile(String email, Employeur updatedProfile) {
@@ -67,11 +90,17 @@ public class ProfileService {
         Employeur employeur = (Employeur) utilisateur;
         employeur.setPrenom(updatedProfile.getPrenom());
         employeur.setNom(updatedProfile.getNom());
+        // nom de l'entreprise affiché dans les offres publiques
+        boolean nomModifie = !Objects.equals(employeur.getNomEntreprise(), updatedProfile.getNomEntreprise());
         employeur.setNomEntreprise(updatedProfile.getNomEntreprise());
         employeur.setMatriculeFiscale(updatedProfile.getMatriculeFiscale());
         employeur.setSecteurActivite(updatedProfile.getSecteurActivite());
 
-        return utilisateurRepository.save(employeur);
+        Utilisateur saved = utilisateurRepository.save(employeur);
+        if (nomModifie) {
+            offresPubliquesCache.invaliderTout();
+        }
+        return saved;
     }
 
     public String uploadCV(String email, MultipartFile file) throws IOException {
@@ -97,6 +126,7 @@ public class ProfileService {
 
         Candidat candidat = (Candidat) utilisateur;
         if (candidat.getCvPath() != null) {
+            cvTextCache.invalidate(candidat.getCvPath());
             try {
                 Files.deleteIfExists(Paths.get(candidat.getCvPath()));
             } catch (IOException e) {
@@ -110,8 +140,14 @@ public class ProfileService {
 
 
         candidat.setCvPath(targetLocation.toString());
+        candidat.setCvUploadDate(LocalDateTime.now());
+        candidat.setCvStatutExtraction(StatutExtractionCv.EN_ATTENTE);
+        candidat.setCvDateExtraction(null);
         utilisateurRepository.save(candidat);
 
+        // extraction du texte en arrière-plan, la requête répond tout de suite
+        cvIngestionService.soumettre(candidat.getId(), candidat.getCvPath());
+
         return "CV uploadé avec succès";
     }
 
@@ -125,12 +161,36 @@ public class ProfileService {
 
         Candidat candidat = (Candidat) utilisateur;
         if (candidat.getCvPath() != null) {
+            cvTextCache.invalidate(candidat.getCvPath());
             Files.deleteIfExists(Paths.get(candidat.getCvPath()));
             candidat.setCvPath(null);
+            candidat.setCvUploadDate(null);
+            candidat.setCvStatutExtraction(null);
+            candidat.setCvDateExtraction(null);
             utilisateurRepository.save(candidat);
+            cvIngestionService.supprimer(candidat.getId());
+            eventPublisher.publishEvent(new CvModifieEvent(candidat.getId()));
         }
     }
 
+    public Map<String, Object> getCVStatus(String email) {
+        Utilisateur utilisateur = utilisateurRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+
+        if (!(utilisateur instanceof Candidat)) {
+            throw new RuntimeException("Seuls les candidats ont un CV");
+        }
+
+        Candidat candidat = (Candidat) utilisateur;
+        Map<String, Object> status = new HashMap<>();
+        status.put("hasCv", candidat.getCvPath() != null);
+        status.put("statut", candidat.getCvStatutExtraction());
+        status.put("cvUploadDate", candidat.getCvUploadDate());
+        status.put("dateExtraction", candidat.getCvDateExtraction());
+        status.put("pretPourMatching", candidat.getCvStatutExtraction() == StatutExtractionCv.PRETE);
+        return status;
+    }
+
     public Resource downloadCV(String email) throws MalformedURLException {
         Utilisateur utilisateur = utilisateurRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
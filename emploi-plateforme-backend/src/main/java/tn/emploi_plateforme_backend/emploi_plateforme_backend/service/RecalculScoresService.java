@@ -0,0 +1,283 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.CandidatureCle;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.JobRecalcul;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutJob;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatureRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.JobRecalculRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.util.TexteUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// recalcul des scores périmés en tâche de fond : parcours par clé, un envoi du CV par candidat,
+// écriture par lots JDBC et point de reprise après chaque page
+@Service
+public class RecalculScoresService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecalculScoresService.class);
+
+    private static final String MAJ_SCORE =
+            "UPDATE candidature SET score = ?, statut_score = 'CALCULE', score_cv_hash = ?, score_offre_hash = ?, " +
+            "score_version_modele = ?, score_perime = FALSE WHERE id = ?";
+
+    // sans CV, rien à scorer : pas de score, et plus à revisiter jusqu'au prochain CV
+    private static final String MARQUER_SANS_CV =
+            "UPDATE candidature SET score = NULL, statut_score = 'SANS_CV', score_cv_hash = NULL, " +
+            "score_version_modele = ?, score_perime = FALSE WHERE id = ?";
+
+    @Autowired
+    private JobRecalculRepository jobRecalculRepository;
+
+    @Autowired
+    private CandidatureRepository candidatureRepository;
+
+    @Autowired
+    private CandidatRepository candidatRepository;
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private ClassementCandidaturesCache classementCandidaturesCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("recalculExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    @Qualifier("recalculWorkerExecutor")
+    private ThreadPoolTaskExecutor workers;
+
+    @Value("${recalcul.page-size:500}")
+    private int taillePage;
+
+    private final TransactionTemplate transaction;
+
+    public RecalculScoresService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // un seul recalcul à la fois : on renvoie celui en cours s'il existe
+    public synchronized JobRecalcul demarrer() {
+        JobRecalcul enCours = jobRecalculRepository.findFirstByStatutOrderByIdDesc(StatutJob.EN_COURS).orElse(null);
+        if (enCours != null) {
+            return enCours;
+        }
+
+        JobRecalcul job = new JobRecalcul();
+        job.setStatut(StatutJob.EN_COURS);
+        job.setTotal(candidatureRepository.countPerimees(matchingService.getVersionModele()));
+        job.setDernierCandidatId(0L);
+        job.setDerniereCandidatureId(0L);
+        job.setDateDebut(LocalDateTime.now());
+        job.setDateMaj(job.getDateDebut());
+        JobRecalcul cree = jobRecalculRepository.save(job);
+
+        executor.execute(() -> executer(cree.getId()));
+        return cree;
+    }
+
+    // reprise après redémarrage depuis le dernier point enregistré
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprendre() {
+        for (JobRecalcul job : jobRecalculRepository.findByStatut(StatutJob.EN_COURS)) {
+            log.info("Reprise du recalcul {} après {} candidatures", job.getId(), job.getTraitees());
+            executor.execute(() -> executer(job.getId()));
+        }
+    }
+
+    public JobRecalcul getJob(Long jobId) {
+        return jobRecalculRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Recalcul non trouvé"));
+    }
+
+    // le worker s'arrête à la fin de la page en cours
+    public JobRecalcul annuler(Long jobId) {
+        Integer annules = transaction.execute(status ->
+                jobRecalculRepository.terminer(jobId, StatutJob.ANNULE, LocalDateTime.now(), null));
+        if (annules == null || annules == 0) {
+            throw new RuntimeException("Ce recalcul n'est plus en cours");
+        }
+        return getJob(jobId);
+    }
+
+    public Map<String, Object> decrire(JobRecalcul job) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("jobId", job.getId());
+        result.put("statut", job.getStatut());
+        result.put("total", job.getTotal());
+        result.put("traitees", job.getTraitees());
+        result.put("misesAJour", job.getMisesAJour());
+        result.put("progression", job.getTotal() > 0
+                ? Math.min(100.0, 100.0 * job.getTraitees() / job.getTotal()) : 100.0);
+
+        // débit mesuré depuis le début de l'exécution courante
+        Double etaSecondes = null;
+        LocalDateTime depuis = job.getDateReprise() != null ? job.getDateReprise() : job.getDateDebut();
+        long faites = job.getTraitees() - job.getTraiteesALaReprise();
+        if (job.getStatut() == StatutJob.EN_COURS && faites > 0 && job.getDateMaj() != null) {
+            double secondes = Math.max(1, Duration.between(depuis, job.getDateMaj()).toSeconds());
+            double debit = faites / secondes;
+            result.put("debitParSeconde", debit);
+            etaSecondes = Math.max(0, job.getTotal() - job.getTraitees()) / debit;
+        }
+        result.put("etaSecondes", etaSecondes);
+        result.put("dateDebut", job.getDateDebut());
+        result.put("dateMaj", job.getDateMaj());
+        result.put("dateFin", job.getDateFin());
+        result.put("erreur", job.getErreur());
+        return result;
+    }
+
+    private void executer(Long jobId) {
+        JobRecalcul job = jobRecalculRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatut() != StatutJob.EN_COURS) return;
+
+        job.setDateReprise(LocalDateTime.now());
+        job.setTraiteesALaReprise(job.getTraitees());
+        jobRecalculRepository.save(job);
+
+        long candidatId = job.getDernierCandidatId();
+        long candidatureId = job.getDerniereCandidatureId();
+        long traitees = job.getTraitees();
+        long misesAJour = job.getMisesAJour();
+        String versionModele = matchingService.getVersionModele();
+
+        try {
+            while (true) {
+                List<CandidatureCle> page = candidatureRepository.findPerimeesApres(
+                        candidatId, candidatureId, versionModele, PageRequest.of(0, taillePage));
+                if (page.isEmpty()) {
+                    transaction.execute(status -> jobRecalculRepository.terminer(
+                            jobId, StatutJob.TERMINE, LocalDateTime.now(), null));
+                    log.info("Recalcul {} terminé: {} scores mis à jour", jobId, misesAJour);
+                    return;
+                }
+
+                misesAJour += traiterPage(page);
+                traitees += page.size();
+                CandidatureCle derniere = page.get(page.size() - 1);
+                candidatId = derniere.candidatId();
+                candidatureId = derniere.id();
+
+                long t = traitees, m = misesAJour, c = candidatId, i = candidatureId;
+                Integer enregistre = transaction.execute(status -> jobRecalculRepository.enregistrerPointDeReprise(
+                        jobId, t, m, c, i, LocalDateTime.now()));
+                // 0 : le job a été annulé entre-temps
+                if (enregistre == null || enregistre == 0) {
+                    log.info("Recalcul {} interrompu après {} candidatures", jobId, traitees);
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Échec du recalcul {}: {}", jobId, e.getMessage());
+            String erreur = e.getMessage() != null && e.getMessage().length() > 500
+                    ? e.getMessage().substring(0, 500) : e.getMessage();
+            transaction.execute(status -> jobRecalculRepository.terminer(
+                    jobId, StatutJob.ECHEC, LocalDateTime.now(), erreur));
+        }
+    }
+
+    private int traiterPage(List<CandidatureCle> page) {
+        Map<Long, List<CandidatureCle>> parCandidat = page.stream()
+                .collect(Collectors.groupingBy(CandidatureCle::candidatId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, Candidat> candidats = candidatRepository.findAllById(parCandidat.keySet()).stream()
+                .collect(Collectors.toMap(Candidat::getId, Function.identity()));
+        Map<Long, Offre> offres = offreRepository.findAllById(
+                        page.stream().map(CandidatureCle::offreId).distinct().toList()).stream()
+                .collect(Collectors.toMap(Offre::getIdOffre, Function.identity()));
+
+        String versionModele = matchingService.getVersionModele();
+        List<CompletableFuture<List<Object[]>>> groupes = new ArrayList<>();
+        List<Object[]> sansCv = new ArrayList<>();
+        parCandidat.forEach((candidatId, cles) -> {
+            Candidat candidat = candidats.get(candidatId);
+            if (candidat == null || candidat.getCvPath() == null) {
+                cles.forEach(cle -> sansCv.add(new Object[]{versionModele, cle.id()}));
+            } else {
+                groupes.add(CompletableFuture.supplyAsync(
+                        () -> scorerGroupe(candidat, cles, offres, versionModele), workers));
+            }
+        });
+
+        List<Object[]> lignes = new ArrayList<>();
+        for (CompletableFuture<List<Object[]>> groupe : groupes) {
+            lignes.addAll(groupe.join());
+        }
+        if (!lignes.isEmpty()) {
+            jdbcTemplate.batchUpdate(MAJ_SCORE, lignes);
+        }
+        if (!sansCv.isEmpty()) {
+            jdbcTemplate.batchUpdate(MARQUER_SANS_CV, sansCv);
+        }
+        if (!lignes.isEmpty() || !sansCv.isEmpty()) {
+            // écriture en masse : les classements des offres touchées seront rechargés
+            classementCandidaturesCache.invalider(offres.keySet());
+        }
+        return lignes.size();
+    }
+
+    // candidatures non scorées : restent périmées pour un prochain passage
+    private List<Object[]> scorerGroupe(Candidat candidat, List<CandidatureCle> cles,
+                                        Map<Long, Offre> offres, String versionModele) {
+        String cvText;
+        try {
+            cvText = matchingService.getCvText(candidat);
+        } catch (IOException e) {
+            log.warn("Texte du CV indisponible pour le candidat {}: {}", candidat.getId(), e.getMessage());
+            return List.of();
+        }
+        String cvHash = TexteUtils.empreinte(cvText);
+
+        List<Offre> offresDuGroupe = cles.stream()
+                .map(cle -> offres.get(cle.offreId()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, Double> scores = matchingService.calculateMatchingScores(cvText, offresDuGroupe);
+
+        List<Object[]> lignes = new ArrayList<>();
+        for (CandidatureCle cle : cles) {
+            Double score = scores.get(cle.offreId());
+            if (score != null) {
+                String offreHash = TexteUtils.empreinte(MatchingService.texteOffre(offres.get(cle.offreId())));
+                lignes.add(new Object[]{BigDecimal.valueOf(score), cvHash, offreHash, versionModele, cle.id()});
+            }
+        }
+        return lignes;
+    }
+}
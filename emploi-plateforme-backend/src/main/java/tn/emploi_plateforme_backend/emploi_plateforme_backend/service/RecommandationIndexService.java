@@ -0,0 +1,228 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Recommandation;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutExtractionCv;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CvModifieEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffresExpireesEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.RecommandationRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// maintient la table des recommandations au fil des événements offre / CV
+// un seul thread d'indexation : les mises à jour d'un même couple ne se croisent pas
+@Service
+public class RecommandationIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommandationIndexService.class);
+    private static final int TAILLE_PAGE_CANDIDATS = 100;
+    private static final int TOP_K_RAPPEL = 10;
+
+    @Autowired
+    private RecommandationRepository recommandationRepository;
+
+    @Autowired
+    private CandidatRepository candidatRepository;
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private OffreSkillIndex offreSkillIndex;
+
+    @Value("${recommandation.shortlist.recall-sample-rate:0.05}")
+    private double tauxMesureRappel;
+
+    @Autowired
+    @Qualifier("recommandationExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    private final TransactionTemplate transaction;
+
+    // candidats dont la table reflète le CV courant, même sans aucune ligne (aucune offre active à recommander)
+    private final Set<Long> indexes = ConcurrentHashMap.newKeySet();
+    // candidats dont l'indexation est en file ou en cours
+    private final Set<Long> planifies = ConcurrentHashMap.newKeySet();
+
+    public RecommandationIndexService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onOffreModifiee(OffreModifieeEvent event) {
+        // offre réactivée : ses recommandations ont été supprimées à l'expiration
+        if (event.contenuModifie() || event.visibiliteModifiee()) {
+            executor.execute(() -> rescorerOffre(event.offreId()));
+        }
+    }
+
+    @EventListener
+    public void onOffreSupprimee(OffreSupprimeeEvent event) {
+        executor.execute(() -> transaction.executeWithoutResult(
+                status -> recommandationRepository.deleteByOffreId(event.offreId())));
+    }
+
+    @EventListener
+    public void onOffresExpirees(OffresExpireesEvent event) {
+        executor.execute(() -> transaction.executeWithoutResult(
+                status -> recommandationRepository.deleteByOffreIdIn(event.offreIds())));
+    }
+
+    @EventListener
+    public void onCvModifie(CvModifieEvent event) {
+        indexes.remove(event.candidatId());
+        executor.execute(() -> rescorerCandidat(event.candidatId()));
+    }
+
+    public boolean estIndexe(Long candidatId) {
+        return indexes.contains(candidatId);
+    }
+
+    // false si le candidat est déjà indexé ou en file : rien n'est ajouté
+    public boolean planifierCandidat(Long candidatId) {
+        if (indexes.contains(candidatId) || !planifies.add(candidatId)) return false;
+        executor.execute(() -> {
+            try {
+                rescorerCandidat(candidatId);
+            } finally {
+                planifies.remove(candidatId);
+            }
+        });
+        return true;
+    }
+
+    // nouvelle offre ou offre modifiée : seule cette offre est rescorée, contre les CV prêts qui la présélectionnent
+    // les lignes des autres candidats de la page sont retirées : hors présélection ou score d'avant la modification
+    private void rescorerOffre(Long offreId) {
+        Offre offre = offreRepository.findById(offreId).orElse(null);
+        if (offre == null || offre.getEtat() != StatutOffre.ACTIVE) {
+            transaction.executeWithoutResult(status -> recommandationRepository.deleteByOffreId(offreId));
+            return;
+        }
+
+        int page = 0;
+        int echecs = 0;
+        Page<Candidat> candidats;
+        do {
+            candidats = candidatRepository.findByCvStatutExtraction(
+                    StatutExtractionCv.PRETE, PageRequest.of(page++, TAILLE_PAGE_CANDIDATS));
+
+            List<Recommandation> lignes = new ArrayList<>();
+            for (Candidat candidat : candidats) {
+                String cvText;
+                try {
+                    cvText = matchingService.getCvText(candidat);
+                } catch (IOException e) {
+                    echecs++;
+                    continue;
+                }
+                // même présélection que rescorerCandidat : pas d'appel distant pour une offre sans terme commun
+                if (!offreSkillIndex.retient(cvText, offreId)) continue;
+
+                Double score = matchingService.calculateMatchingScores(cvText, List.of(offre)).get(offreId);
+                if (score != null) {
+                    lignes.add(new Recommandation(candidat.getId(), offreId, score));
+                } else {
+                    echecs++;
+                }
+            }
+
+            List<Long> candidatIds = candidats.stream().map(Candidat::getId).toList();
+            if (!candidatIds.isEmpty()) {
+                transaction.executeWithoutResult(status -> {
+                    recommandationRepository.deleteByOffreIdAndCandidatIdIn(offreId, candidatIds);
+                    recommandationRepository.saveAll(lignes);
+                });
+            }
+        } while (candidats.hasNext());
+
+        if (echecs > 0) {
+            log.warn("Offre {} non rescorée pour {} candidats, leurs recommandations pour cette offre sont retirées",
+                    offreId, echecs);
+        }
+    }
+
+    // nouveau CV : seul ce candidat est rescoré, contre toutes les offres actives
+    private void rescorerCandidat(Long candidatId) {
+        Candidat candidat = candidatRepository.findById(candidatId).orElse(null);
+        if (candidat == null || candidat.getCvPath() == null) {
+            indexes.remove(candidatId);
+            transaction.executeWithoutResult(status -> recommandationRepository.deleteByCandidatId(candidatId));
+            return;
+        }
+        if (candidat.getCvStatutExtraction() != StatutExtractionCv.PRETE) {
+            return;
+        }
+
+        String cvText;
+        try {
+            cvText = matchingService.getCvText(candidat);
+        } catch (IOException e) {
+            log.warn("Texte du CV indisponible pour le candidat {}: {}", candidatId, e.getMessage());
+            return;
+        }
+
+        List<Offre> actives = offreRepository.findByEtat(StatutOffre.ACTIVE);
+        List<Offre> offres = offreSkillIndex.preselectionner(cvText, actives);
+
+        // sur un échantillon, on score tout pour mesurer le rappel de la présélection
+        boolean mesurerRappel = offres.size() < actives.size()
+                && ThreadLocalRandom.current().nextDouble() < tauxMesureRappel;
+        Map<Long, Double> scores = matchingService.calculateMatchingScores(cvText, mesurerRappel ? actives : offres);
+        if (mesurerRappel && !scores.isEmpty()) {
+            offreSkillIndex.enregistrerRappel(rappel(scores, offres));
+        }
+        if (scores.isEmpty() && !offres.isEmpty()) {
+            log.warn("Aucun score obtenu pour le candidat {}, recommandations conservées", candidatId);
+            return;
+        }
+
+        List<Recommandation> lignes = new ArrayList<>(scores.size());
+        scores.forEach((offreId, score) -> lignes.add(new Recommandation(candidatId, offreId, score)));
+
+        transaction.executeWithoutResult(status -> {
+            recommandationRepository.deleteByCandidatId(candidatId);
+            recommandationRepository.saveAll(lignes);
+        });
+        indexes.add(candidatId);
+    }
+
+    private static double rappel(Map<Long, Double> scoresComplets, List<Offre> preselection) {
+        Set<Long> retenues = preselection.stream().map(Offre::getIdOffre).collect(Collectors.toSet());
+        List<Long> topK = scoresComplets.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(TOP_K_RAPPEL)
+                .map(Map.Entry::getKey)
+                .toList();
+        long trouvees = topK.stream().filter(retenues::contains).count();
+        return topK.isEmpty() ? 1.0 : (double) trouvees / topK.size();
+    }
+}
@@ -1,21 +1,37 @@
 package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.JobRequest;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.OffreRecommandationDTO;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Recommandation;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutExtractionCv;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatRepository;
 import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.RecommandationRepository;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class RecommandationService {
 
+    private static final Logger log = LoggerFactory.getLogger(RecommandationService.class);
+
+    private static final int LIMITE_PAR_DEFAUT = 10;
+
     @Autowired
     private OffreRepository offreRepository;
 
@@ -25,7 +41,23 @@ public class RecommandationService {
     @Autowired
     private MatchingService matchingService;
 
+    @Autowired
+    private RecommandationRepository recommandationRepository;
+
+    @Autowired
+    private RecommandationIndexService recommandationIndexService;
+
+    @Autowired
+    private OffreSkillIndex offreSkillIndex;
+
+    @Value("${recommandation.deadline-ms:10000}")
+    private long delaiMs;
+
     public List<OffreRecommandationDTO> getRecommendedOffersForCandidat(Long candidatId) {
+        return getRecommendedOffersForCandidat(candidatId, LIMITE_PAR_DEFAUT);
+    }
+
+    public List<OffreRecommandationDTO> getRecommendedOffersForCandidat(Long candidatId, int limite) {
         Optional<Candidat> candidatOpt = candidatRepository.findById(candidatId);
         if (!candidatOpt.isPresent()) {
             throw new RuntimeException("Candidat non trouvé avec l'ID: " + candidatId);
@@ -38,31 +70,88 @@ public class RecommandationService {
             return Collections.emptyList();
         }
 
+        // lecture de la table précalculée ; indexé sans ligne : aucune offre active à recommander
+        if (recommandationIndexService.estIndexe(candidatId) || recommandationRepository.existsByCandidatId(candidatId)) {
+            return lireRecommandations(candidatId, limite);
+        }
+
+        // texte du CV illisible : rien à scorer
+        if (candidat.getCvStatutExtraction() == StatutExtractionCv.ECHEC) {
+            return Collections.emptyList();
+        }
+
+        // CV prêt mais pas encore indexé : un seul calcul direct, par la requête qui planifie l'indexation
+        // les suivantes lisent la table jusqu'à la fin de l'indexation
+        if (candidat.getCvStatutExtraction() == StatutExtractionCv.PRETE
+                && !recommandationIndexService.planifierCandidat(candidatId)) {
+            return lireRecommandations(candidatId, limite);
+        }
 
-        List<Offre> offresActives = offreRepository.findByEtat(StatutOffre.ACTIVE);
+        // extraction pas terminée : calcul direct, l'indexation suivra l'événement de fin d'extraction
+        return calculerRecommandations(candidat, limite);
+    }
+
+    private List<OffreRecommandationDTO> lireRecommandations(Long candidatId, int limite) {
+        List<Recommandation> top = recommandationRepository.findTopActives(
+                candidatId, LocalDate.now(), PageRequest.of(0, limite));
+
+        Map<Long, Offre> offres = offreRepository.findAllById(
+                top.stream().map(Recommandation::getOffreId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Offre::getIdOffre, Function.identity()));
+
+        List<OffreRecommandationDTO> recommandations = new ArrayList<>();
+        for (Recommandation recommandation : top) {
+            Offre offre = offres.get(recommandation.getOffreId());
+            if (offre != null) {
+                recommandations.add(toDTO(offre, recommandation.getScore(), recommandation.getDateCalcul()));
+            }
+        }
+        return recommandations;
+    }
+
+    private List<OffreRecommandationDTO> calculerRecommandations(Candidat candidat, int limite) {
+        String cvText;
+        try {
+            cvText = matchingService.getCvText(candidat);
+        } catch (IOException e) {
+            log.warn("Erreur lors de la lecture du CV du candidat {}", candidat.getId(), e);
+            return Collections.emptyList();
+        }
+
+        // seules les offres présélectionnées par l'index partent au scoring distant
+        List<Offre> offresActives = offreSkillIndex.preselectionner(
+                cvText, offreRepository.findByEtat(StatutOffre.ACTIVE));
         List<OffreRecommandationDTO> recommandations = new ArrayList<>();
 
+        // au-delà de l'échéance on renvoie le meilleur top-K partiel
+        Map<Long, Double> scores = matchingService.calculateMatchingScores(
+                cvText, offresActives, Duration.ofMillis(delaiMs));
+
+        LocalDateTime maintenant = LocalDateTime.now();
         for (Offre offre : offresActives) {
-            try {
-                String offreText = offre.getTitre() + " " + offre.getDescription();
-                Double score = matchingService.calculateMatchingScore(candidat.getCvPath(), offreText);
-
-                OffreRecommandationDTO dto = new OffreRecommandationDTO();
-                dto.setOffre(convertOffreToDTO(offre));
-                dto.setScore(score);
-                recommandations.add(dto);
-            } catch (Exception e) {
-                System.err.println("Erreur lors du calcul du score pour l'offre " + offre.getIdOffre() + ": " + e.getMessage());
+            Double score = scores.get(offre.getIdOffre());
+            if (score == null) {
+                continue;
             }
+            recommandations.add(toDTO(offre, score, maintenant));
         }
 
 
         return recommandations.stream()
                 .sorted((a, b) -> Double.compare(b.getScore(), a.getScore()))
-                .limit(10)
+                .limit(limite)
                 .collect(Collectors.toList());
     }
 
+    private OffreRecommandationDTO toDTO(Offre offre, Double score, LocalDateTime dateCalcul) {
+        OffreRecommandationDTO dto = new OffreRecommandationDTO();
+        dto.setOffre(convertOffreToDTO(offre));
+        dto.setScore(score);
+        dto.setDateCalcul(dateCalcul);
+        return dto;
+    }
+
     private JobRequest convertOffreToDTO(Offre offre) {
         JobRequest dto = new JobRequest();
         dto.setIdOffre(offre.getIdOffre());
@@ -80,4 +169,4 @@ public class RecommandationService {
 
         return dto;
     }
-}
\ No newline at end of file
+}
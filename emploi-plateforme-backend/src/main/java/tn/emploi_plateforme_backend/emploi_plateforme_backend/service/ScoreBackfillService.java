@@ -0,0 +1,56 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutScore;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.TacheScoring;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatureRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.TacheScoringRepository;
+
+import java.util.List;
+
+// remet en file les candidatures au score en attente qui n'ont plus de tâche de scoring
+// (scores en attente antérieurs à la file, tâche supprimée à la main...)
+@Service
+public class ScoreBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreBackfillService.class);
+
+    @Autowired
+    private CandidatureRepository candidatureRepository;
+
+    @Autowired
+    private TacheScoringRepository tacheScoringRepository;
+
+    @Autowired
+    private ScoringQueueWorker scoringQueueWorker;
+
+    @Value("${matching.backfill.page-size:100}")
+    private int taillePage;
+
+    @Scheduled(fixedDelayString = "${matching.backfill.interval-ms:60000}",
+            initialDelayString = "${matching.backfill.interval-ms:60000}")
+    public void completerScoresEnAttente() {
+        int remises = 0;
+        List<Long> ids;
+        do {
+            ids = candidatureRepository.findIdsEnAttenteSansTache(PageRequest.of(0, taillePage));
+            tacheScoringRepository.saveAll(ids.stream().map(TacheScoring::new).toList());
+            remises += ids.size();
+        } while (ids.size() == taillePage);
+
+        if (remises > 0) {
+            log.info("{} candidatures au score en attente remises en file", remises);
+            scoringQueueWorker.reveiller();
+        }
+    }
+
+    public long compterEnAttente() {
+        return candidatureRepository.countByStatutScore(StatutScore.EN_ATTENTE);
+    }
+}
@@ -0,0 +1,68 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CvModifieEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+
+// marque périmés les scores des seules candidatures touchées par un changement d'offre ou de CV,
+// et les remet dans la file de scoring
+@Service
+public class ScoreInvalidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreInvalidationService.class);
+
+    // une tâche déjà présente (même en échec ou en cours) est réarmée
+    private static final String METTRE_EN_FILE =
+            "INSERT INTO tache_scoring (candidature_id, statut, tentatives, prochain_essai, date_creation) " +
+            "SELECT c.id, 'EN_ATTENTE', 0, NOW(), NOW() FROM candidature c WHERE c.%s = ? " +
+            "ON DUPLICATE KEY UPDATE statut = 'EN_ATTENTE', tentatives = 0, prochain_essai = NOW(), " +
+            "verrou_jusqua = NULL, derniere_erreur = NULL";
+
+    private static final String MARQUER_PERIMES =
+            "UPDATE candidature SET score_perime = TRUE WHERE %s = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ScoringQueueWorker scoringQueueWorker;
+
+    private final TransactionTemplate transaction;
+
+    public ScoreInvalidationService(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener
+    public void onOffreModifiee(OffreModifieeEvent event) {
+        if (event.contenuModifie()) {
+            invalider("offre_id", event.offreId());
+        }
+    }
+
+    @EventListener
+    public void onCvModifie(CvModifieEvent event) {
+        invalider("candidat_id", event.candidatId());
+    }
+
+    private void invalider(String colonne, Long id) {
+        Integer perimes = transaction.execute(status -> {
+            int n = jdbcTemplate.update(String.format(MARQUER_PERIMES, colonne), id);
+            if (n > 0) {
+                jdbcTemplate.update(String.format(METTRE_EN_FILE, colonne), id);
+            }
+            return n;
+        });
+        if (perimes != null && perimes > 0) {
+            log.info("{} scores périmés ({} = {}) remis en file", perimes, colonne, id);
+            scoringQueueWorker.reveiller();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.ScoreMemo;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.ScoreMemoRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// mémo des scores par (empreinte CV, empreinte offre), pour la version courante du modèle
+// niveau 1 : LRU en mémoire, niveau 2 : table score_memo
+@Service
+public class ScoreMemoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreMemoService.class);
+
+    private static final String UPSERT =
+            "INSERT INTO score_memo (cv_hash, offre_hash, version_modele, score, date_calcul) " +
+            "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE score = VALUES(score), date_calcul = VALUES(date_calcul)";
+
+    private static final String PURGE =
+            "DELETE FROM score_memo WHERE version_modele <> ? AND date_calcul < ? LIMIT ?";
+    private static final int TRANCHE_PURGE = 10000;
+
+    @Autowired
+    private ScoreMemoRepository scoreMemoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${matching.score-memo.retention-autres-versions-jours:7}")
+    private long retentionJours;
+
+    private final String versionModele;
+    private final Cache<String, Double> memoire;
+
+    private final AtomicLong memoireHits = new AtomicLong();
+    private final AtomicLong baseHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong ecritures = new AtomicLong();
+
+    public ScoreMemoService(@Value("${matching.model.version:1.0.0}") String versionModele,
+                            @Value("${matching.score-memo.max-entries:200000}") long maxEntrees) {
+        this.versionModele = versionModele;
+        this.memoire = Caffeine.newBuilder()
+                .maximumSize(maxEntrees)
+                .build();
+    }
+
+    // lignes des autres versions du modèle : jamais lues ici (recherche par version), supprimées seulement
+    // après la rétention, pas au démarrage : pendant un déploiement progressif, les nœuds de l'autre version
+    // gardent leur mémo ; une ligne purgée trop tôt est simplement recalculée
+    @Scheduled(fixedDelayString = "${matching.score-memo.purge-ms:86400000}",
+            initialDelayString = "${matching.score-memo.purge-ms:86400000}")
+    public void purgerAnciennesVersions() {
+        int supprimes = purgerAutresVersions(LocalDateTime.now().minusDays(retentionJours));
+        if (supprimes > 0) {
+            log.info("{} scores mémorisés d'autres versions du modèle supprimés (inactifs depuis {} jours)",
+                    supprimes, retentionJours);
+        }
+    }
+
+    // action d'administration, une fois tous les nœuds passés à la version courante
+    public int purgerAutresVersions() {
+        int supprimes = purgerAutresVersions(LocalDateTime.now());
+        log.info("{} scores mémorisés d'autres versions du modèle supprimés", supprimes);
+        return supprimes;
+    }
+
+    // par tranches : pas de verrou prolongé sur la table pendant que les autres nœuds l'écrivent
+    private int purgerAutresVersions(LocalDateTime avant) {
+        int total = 0;
+        int supprimes;
+        do {
+            supprimes = jdbcTemplate.update(PURGE, versionModele, Timestamp.valueOf(avant), TRANCHE_PURGE);
+            total += supprimes;
+        } while (supprimes == TRANCHE_PURGE);
+        return total;
+    }
+
+    public Double rechercher(String cvHash, String offreHash) {
+        return rechercher(cvHash, List.of(offreHash)).get(offreHash);
+    }
+
+    // empreinte offre -> score, pour les seules offres déjà scorées
+    public Map<String, Double> rechercher(String cvHash, Collection<String> offreHashes) {
+        Map<String, Double> trouves = new HashMap<>();
+        List<String> absents = new ArrayList<>();
+        for (String offreHash : offreHashes) {
+            Double score = memoire.getIfPresent(cle(cvHash, offreHash));
+            if (score != null) {
+                trouves.put(offreHash, score);
+            } else {
+                absents.add(offreHash);
+            }
+        }
+        memoireHits.addAndGet(trouves.size());
+
+        if (!absents.isEmpty()) {
+            try {
+                for (ScoreMemo memo : scoreMemoRepository.findByCvHashAndVersionModeleAndOffreHashIn(
+                        cvHash, versionModele, absents)) {
+                    trouves.put(memo.getOffreHash(), memo.getScore());
+                    memoire.put(cle(cvHash, memo.getOffreHash()), memo.getScore());
+                    baseHits.incrementAndGet();
+                }
+            } catch (Exception e) {
+                log.warn("Lecture du mémo de scores impossible: {}", e.getMessage());
+            }
+        }
+        misses.addAndGet(offreHashes.size() - trouves.size());
+        return trouves;
+    }
+
+    public void enregistrer(String cvHash, String offreHash, Double score) {
+        enregistrer(cvHash, Map.of(offreHash, score));
+    }
+
+    public void enregistrer(String cvHash, Map<String, Double> scoresParOffre) {
+        if (scoresParOffre.isEmpty()) return;
+        Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> lignes = new ArrayList<>(scoresParOffre.size());
+        scoresParOffre.forEach((offreHash, score) -> {
+            memoire.put(cle(cvHash, offreHash), score);
+            lignes.add(new Object[]{cvHash, offreHash, versionModele, score, maintenant});
+        });
+        // le mémo est un accélérateur : un échec d'écriture ne doit pas faire échouer le scoring
+        try {
+            jdbcTemplate.batchUpdate(UPSERT, lignes);
+            ecritures.addAndGet(lignes.size());
+        } catch (Exception e) {
+            log.warn("Écriture du mémo de scores impossible: {}", e.getMessage());
+        }
+    }
+
+    public String getVersionModele() {
+        return versionModele;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("versionModele", versionModele);
+        result.put("memoireHits", memoireHits.get());
+        result.put("baseHits", baseHits.get());
+        result.put("misses", misses.get());
+        result.put("ecritures", ecritures.get());
+        result.put("entreesMemoire", memoire.estimatedSize());
+        return result;
+    }
+
+    private static String cle(String cvHash, String offreHash) {
+        return cvHash + ':' + offreHash;
+    }
+}
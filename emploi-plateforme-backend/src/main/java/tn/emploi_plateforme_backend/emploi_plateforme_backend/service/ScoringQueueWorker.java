@@ -0,0 +1,217 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidature;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutScore;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutTache;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.TacheScoring;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.CandidatureSoumiseEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.CandidatureRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.TacheScoringRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.util.TexteUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// consomme la file tache_scoring : réservation conditionnelle, nouvel essai avec backoff exponentiel
+@Service
+public class ScoringQueueWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoringQueueWorker.class);
+
+    @Autowired
+    private TacheScoringRepository tacheScoringRepository;
+
+    @Autowired
+    private CandidatureRepository candidatureRepository;
+
+    @Autowired
+    private MatchingService matchingService;
+
+    @Autowired
+    private ClassementCandidaturesCache classementCandidaturesCache;
+
+    @Autowired
+    @Qualifier("scoringExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Value("${scoring.queue.threads:2}")
+    private int nbWorkers;
+
+    @Value("${scoring.queue.max-attempts:8}")
+    private int maxTentatives;
+
+    @Value("${scoring.queue.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${scoring.queue.backoff-max-ms:1800000}")
+    private long backoffMaxMs;
+
+    // une tâche abandonnée est retentée une fois par période : la candidature ne reste pas sans score
+    @Value("${scoring.queue.echec-retry-ms:3600000}")
+    private long echecRetryMs;
+
+    @Value("${scoring.queue.lease-ms:300000}")
+    private long bailMs;
+
+    private final TransactionTemplate transaction;
+    private final AtomicInteger workersActifs = new AtomicInteger();
+
+    public ScoringQueueWorker(PlatformTransactionManager transactionManager) {
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onCandidatureSoumise(CandidatureSoumiseEvent event) {
+        if (event.aScorer()) {
+            reveiller();
+        }
+    }
+
+    // filet de sécurité : tâches dues après backoff, baux expirés, redémarrage
+    @Scheduled(fixedDelayString = "${scoring.queue.poll-ms:5000}")
+    public void reveiller() {
+        while (true) {
+            int actifs = workersActifs.get();
+            if (actifs >= nbWorkers) return;
+            if (workersActifs.compareAndSet(actifs, actifs + 1)) {
+                try {
+                    executor.execute(this::vider);
+                } catch (TaskRejectedException e) {
+                    workersActifs.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enAttente", tacheScoringRepository.countByStatut(StatutTache.EN_ATTENTE));
+        result.put("enCours", tacheScoringRepository.countByStatut(StatutTache.EN_COURS));
+        result.put("echecs", tacheScoringRepository.countByStatut(StatutTache.ECHEC));
+        result.put("workersActifs", workersActifs.get());
+        return result;
+    }
+
+    private void vider() {
+        try {
+            // circuit ouvert : les tâches attendent sans consommer de tentative
+            while (matchingService.estDisponible()) {
+                TacheScoring tache = prendre();
+                if (tache == null) break;
+                traiter(tache);
+            }
+        } catch (Exception e) {
+            log.warn("Erreur du worker de scoring: {}", e.getMessage());
+        } finally {
+            workersActifs.decrementAndGet();
+        }
+    }
+
+    private TacheScoring prendre() {
+        LocalDateTime maintenant = LocalDateTime.now();
+        List<Long> ids = tacheScoringRepository.findIdsAPrendre(maintenant, PageRequest.of(0, nbWorkers * 2));
+        for (Long id : ids) {
+            Integer reservees = transaction.execute(
+                    status -> tacheScoringRepository.reserver(id, maintenant, maintenant.plus(Duration.ofMillis(bailMs))));
+            if (reservees != null && reservees == 1) {
+                return tacheScoringRepository.findById(id).orElse(null);
+            }
+        }
+        return null;
+    }
+
+    private void traiter(TacheScoring tache) {
+        Candidature candidature = candidatureRepository.findById(tache.getCandidatureId()).orElse(null);
+        if (candidature == null) {
+            tacheScoringRepository.delete(tache);
+            return;
+        }
+
+        Offre offre = candidature.getOffre();
+        // sans CV (supprimé depuis la mise en file) : pas de score à inventer
+        Double score = null;
+        StatutScore statut = StatutScore.SANS_CV;
+        String cvHash = null;
+        if (candidature.getCandidat().getCvPath() != null) {
+            String cvText;
+            try {
+                cvText = matchingService.getCvText(candidature.getCandidat());
+            } catch (IOException e) {
+                replanifier(tache, "CV illisible: " + e.getMessage());
+                return;
+            }
+            cvHash = TexteUtils.empreinte(cvText);
+            score = matchingService.calculateMatchingScores(cvText, List.of(offre)).get(offre.getIdOffre());
+            if (score == null) {
+                replanifier(tache, "Score indisponible");
+                return;
+            }
+            statut = StatutScore.CALCULE;
+        }
+
+        BigDecimal scoreFinal = score != null ? BigDecimal.valueOf(score) : null;
+        StatutScore statutFinal = statut;
+        String cvHashFinal = cvHash;
+        Boolean ecrit = transaction.execute(status -> {
+            int lignes = candidatureRepository.ecrireScore(candidature.getId(), scoreFinal,
+                    statutFinal, cvHashFinal, TexteUtils.empreinte(MatchingService.texteOffre(offre)),
+                    matchingService.getVersionModele());
+            if (lignes == 0) {
+                // candidature retirée pendant le calcul
+                tacheScoringRepository.deleteById(tache.getId());
+                return false;
+            }
+            // tâche réarmée pendant le calcul (CV ou offre modifié) : elle reste pour un nouveau passage
+            tacheScoringRepository.supprimerSiEnCours(tache.getId());
+            return true;
+        });
+        if (Boolean.TRUE.equals(ecrit)) {
+            // ligne relue : état et décision à jour
+            candidatureRepository.findTrieeParId(candidature.getId()).ifPresent(classementCandidaturesCache::placer);
+        } else {
+            classementCandidaturesCache.retirer(offre.getIdOffre(), candidature.getId());
+        }
+    }
+
+    private void replanifier(TacheScoring tache, String erreur) {
+        tache.setDerniereErreur(erreur);
+        tache.setVerrouJusqua(null);
+        if (tache.getTentatives() >= maxTentatives) {
+            tache.setStatut(StatutTache.ECHEC);
+            tache.setProchainEssai(LocalDateTime.now().plus(Duration.ofMillis(echecRetryMs)));
+            if (tache.getTentatives() == maxTentatives) {
+                log.warn("Scoring de la candidature {} en échec après {} tentatives, nouvel essai périodique",
+                        tache.getCandidatureId(), tache.getTentatives());
+            }
+        } else {
+            // backoff exponentiel plafonné, avec gigue pour étaler les reprises
+            long delai = Math.min(backoffMaxMs, backoffMs << Math.min(tache.getTentatives() - 1, 20));
+            delai += ThreadLocalRandom.current().nextLong(delai / 4 + 1);
+            tache.setStatut(StatutTache.EN_ATTENTE);
+            tache.setProchainEssai(LocalDateTime.now().plus(Duration.ofMillis(delai)));
+        }
+        tacheScoringRepository.save(tache);
+    }
+}
@@ -0,0 +1,402 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.SuggestionDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffresExpireesEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.util.TexteUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// suggestions de saisie sur les titres et localisations des offres actives, sans accès à la base par frappe
+// un arbre de préfixes par champ ; chaque nœud garde ses meilleures phrases, classées par nombre d'offres
+// chaque phrase est aussi indexée à partir de chacun de ses mots : "java" propose "Développeur Java"
+@Service
+public class SuggestionsOffresIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionsOffresIndex.class);
+
+    private static final Pattern SEPARATEURS = Pattern.compile("[^a-z0-9+#]+");
+    // au-delà, les mots suivants ne servent plus de point d'entrée
+    private static final int MAX_MOTS = 8;
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    private final int taille;
+    private final Arbre titres;
+    private final Arbre localisations;
+    private final Map<Long, Indexee> indexees = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+    private final Object ecriture = new Object();
+
+    private final AtomicLong suggestions = new AtomicLong();
+    private final AtomicLong suggestionNanos = new AtomicLong();
+
+    private record Indexee(String titre, String localisation) {
+    }
+
+    public SuggestionsOffresIndex(@Value("${offre.suggestions.taille:10}") int taille) {
+        this.taille = Math.max(1, taille);
+        this.titres = new Arbre(this.taille);
+        this.localisations = new Arbre(this.taille);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construire() {
+        synchronized (ecriture) {
+            List<Object[]> lignes = offreRepository.findTitresLocalisationsActives();
+            verrou.writeLock().lock();
+            try {
+                titres.vider();
+                localisations.vider();
+                indexees.clear();
+                for (Object[] ligne : lignes) {
+                    ajouter((Long) ligne[0], (String) ligne[1], (String) ligne[2], false);
+                }
+                // classement en une passe à la fin plutôt qu'à chaque insertion
+                titres.classer(titres.racine);
+                localisations.classer(localisations.racine);
+            } finally {
+                verrou.writeLock().unlock();
+            }
+            log.info("Index des suggestions construit: {} offres, {} titres, {} localisations",
+                    lignes.size(), titres.phrases.size(), localisations.phrases.size());
+        }
+    }
+
+    @EventListener
+    public void onOffreModifiee(OffreModifieeEvent event) {
+        synchronized (ecriture) {
+            // lu sous le verrou d'écriture : deux modifications rapprochées s'appliquent dans l'ordre
+            Offre offre = offreRepository.findById(event.offreId()).orElse(null);
+            Indexee nouvelle = offre != null && offre.getEtat() == StatutOffre.ACTIVE
+                    ? new Indexee(offre.getTitre(), offre.getLocalisation()) : null;
+            verrou.writeLock().lock();
+            try {
+                if (Objects.equals(indexees.get(event.offreId()), nouvelle)) return;
+                retirer(event.offreId());
+                if (nouvelle != null) {
+                    ajouter(event.offreId(), nouvelle.titre(), nouvelle.localisation(), true);
+                }
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onOffresExpirees(OffresExpireesEvent event) {
+        synchronized (ecriture) {
+            verrou.writeLock().lock();
+            try {
+                event.offreIds().forEach(this::retirer);
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onOffreSupprimee(OffreSupprimeeEvent event) {
+        synchronized (ecriture) {
+            verrou.writeLock().lock();
+            try {
+                retirer(event.offreId());
+            } finally {
+                verrou.writeLock().unlock();
+            }
+        }
+    }
+
+    public List<SuggestionDTO> suggererTitres(String saisie, int limite) {
+        return suggerer(titres, saisie, limite);
+    }
+
+    public List<SuggestionDTO> suggererLocalisations(String saisie, int limite) {
+        return suggerer(localisations, saisie, limite);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        verrou.readLock().lock();
+        try {
+            stats.put("offresIndexees", indexees.size());
+            stats.put("titres", titres.phrases.size());
+            stats.put("localisations", localisations.phrases.size());
+            stats.put("noeuds", titres.noeuds + localisations.noeuds);
+        } finally {
+            verrou.readLock().unlock();
+        }
+        long n = suggestions.get();
+        stats.put("taille", taille);
+        stats.put("suggestions", n);
+        stats.put("latenceMoyenneMs", n == 0 ? 0.0 : suggestionNanos.get() / 1_000_000.0 / n);
+        return stats;
+    }
+
+    private List<SuggestionDTO> suggerer(Arbre arbre, String saisie, int limite) {
+        long debut = System.nanoTime();
+        List<SuggestionDTO> result = new ArrayList<>();
+        verrou.readLock().lock();
+        try {
+            Noeud noeud = arbre.trouver(normaliser(saisie));
+            if (noeud != null) {
+                for (Phrase phrase : noeud.meilleures) {
+                    if (result.size() >= limite) break;
+                    result.add(new SuggestionDTO(phrase.affichage, phrase.nbOffres));
+                }
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+        suggestions.incrementAndGet();
+        suggestionNanos.addAndGet(System.nanoTime() - debut);
+        return result;
+    }
+
+    // appelés sous le verrou d'écriture
+    private void ajouter(Long offreId, String titre, String localisation, boolean classer) {
+        indexees.put(offreId, new Indexee(titre, localisation));
+        titres.ajouter(titre, classer);
+        localisations.ajouter(localisation, classer);
+    }
+
+    private void retirer(Long offreId) {
+        Indexee indexee = indexees.remove(offreId);
+        if (indexee == null) return;
+        titres.retirer(indexee.titre());
+        localisations.retirer(indexee.localisation());
+    }
+
+    // "Développeur  Full-Stack " -> "developpeur full stack"
+    static String normaliser(String texte) {
+        return SEPARATEURS.matcher(TexteUtils.plier(texte)).replaceAll(" ").trim();
+    }
+
+    private static final class Phrase {
+        private final String cle;
+        // forme d'origine de la première offre indexée
+        private final String affichage;
+        private int nbOffres;
+
+        private Phrase(String cle, String affichage) {
+            this.cle = cle;
+            this.affichage = affichage;
+        }
+    }
+
+    // plus d'offres d'abord, puis la plus courte, puis l'ordre alphabétique
+    private static int comparer(Phrase a, Phrase b) {
+        if (a.nbOffres != b.nbOffres) return Integer.compare(b.nbOffres, a.nbOffres);
+        if (a.cle.length() != b.cle.length()) return Integer.compare(a.cle.length(), b.cle.length());
+        return a.cle.compareTo(b.cle);
+    }
+
+    // arbre compressé : chaque arête porte une étiquette, un nœud n'existe qu'aux embranchements et fins d'entrée
+    private static final class Noeud {
+        private String etiquette;
+        private final Map<Character, Noeud> enfants = new HashMap<>();
+        // phrases dont un point d'entrée se termine ici
+        private final List<Phrase> phrases = new ArrayList<>(1);
+        private Phrase[] meilleures = new Phrase[0];
+
+        private Noeud(String etiquette) {
+            this.etiquette = etiquette;
+        }
+    }
+
+    private static final class Arbre {
+        private final int taille;
+        private final Map<String, Phrase> phrases = new HashMap<>();
+        private Noeud racine = new Noeud("");
+        private int noeuds;
+
+        private Arbre(int taille) {
+            this.taille = taille;
+        }
+
+        private void vider() {
+            phrases.clear();
+            racine = new Noeud("");
+            noeuds = 0;
+        }
+
+        // nœud sous lequel se trouvent toutes les entrées commençant par ce préfixe
+        private Noeud trouver(String prefixe) {
+            Noeud noeud = racine;
+            int i = 0;
+            while (i < prefixe.length()) {
+                noeud = noeud.enfants.get(prefixe.charAt(i));
+                if (noeud == null) return null;
+                int commun = prefixeCommun(noeud.etiquette, prefixe, i);
+                if (i + commun == prefixe.length()) return noeud;
+                if (commun < noeud.etiquette.length()) return null;
+                i += commun;
+            }
+            return noeud;
+        }
+
+        private void ajouter(String texte, boolean classer) {
+            String cle = normaliser(texte);
+            if (cle.isEmpty()) return;
+            Phrase phrase = phrases.get(cle);
+            boolean nouvelle = phrase == null;
+            if (nouvelle) {
+                phrase = new Phrase(cle, texte.trim());
+                phrases.put(cle, phrase);
+            }
+            phrase.nbOffres++;
+            for (String entree : entrees(cle)) {
+                List<Noeud> chemin = chemin(entree, nouvelle);
+                if (nouvelle) chemin.get(chemin.size() - 1).phrases.add(phrase);
+                if (classer) remonter(chemin, phrase);
+            }
+        }
+
+        private void retirer(String texte) {
+            String cle = normaliser(texte);
+            Phrase phrase = phrases.get(cle);
+            if (phrase == null) return;
+            phrase.nbOffres--;
+            boolean disparue = phrase.nbOffres == 0;
+            if (disparue) {
+                phrases.remove(cle);
+            }
+            for (String entree : entrees(cle)) {
+                List<Noeud> chemin = chemin(entree, false);
+                if (chemin == null) continue;
+                if (disparue) chemin.get(chemin.size() - 1).phrases.remove(phrase);
+                remonter(chemin, phrase);
+            }
+        }
+
+        // la phrase entière puis chaque suffixe commençant à un mot
+        private static List<String> entrees(String cle) {
+            List<String> entrees = new ArrayList<>();
+            entrees.add(cle);
+            for (int i = cle.indexOf(' '); i >= 0 && entrees.size() < MAX_MOTS; i = cle.indexOf(' ', i + 1)) {
+                entrees.add(cle.substring(i + 1));
+            }
+            return entrees;
+        }
+
+        // nœuds de la racine jusqu'à la fin de l'entrée ; créés au besoin en scindant les arêtes, sinon null si absente
+        private List<Noeud> chemin(String entree, boolean creer) {
+            List<Noeud> chemin = new ArrayList<>();
+            Noeud noeud = racine;
+            chemin.add(noeud);
+            int i = 0;
+            while (i < entree.length()) {
+                char c = entree.charAt(i);
+                Noeud enfant = noeud.enfants.get(c);
+                if (enfant == null) {
+                    if (!creer) return null;
+                    enfant = new Noeud(entree.substring(i));
+                    noeud.enfants.put(c, enfant);
+                    noeuds++;
+                    chemin.add(enfant);
+                    return chemin;
+                }
+                int commun = prefixeCommun(enfant.etiquette, entree, i);
+                if (commun < enfant.etiquette.length()) {
+                    if (!creer) return null;
+                    // l'entrée s'arrête ou bifurque au milieu de l'arête : nœud intermédiaire
+                    Noeud milieu = new Noeud(enfant.etiquette.substring(0, commun));
+                    enfant.etiquette = enfant.etiquette.substring(commun);
+                    milieu.enfants.put(enfant.etiquette.charAt(0), enfant);
+                    milieu.meilleures = enfant.meilleures;
+                    noeud.enfants.put(c, milieu);
+                    noeuds++;
+                    enfant = milieu;
+                }
+                chemin.add(enfant);
+                noeud = enfant;
+                i += commun;
+            }
+            return chemin;
+        }
+
+        // recalcule les meilleures phrases en remontant le chemin ; élague les nœuds vides et refusionne les arêtes
+        private void remonter(List<Noeud> chemin, Phrase phrase) {
+            for (int i = chemin.size() - 1; i >= 0; i--) {
+                Noeud noeud = chemin.get(i);
+                if (i > 0 && noeud.phrases.isEmpty() && noeud.enfants.size() <= 1) {
+                    Noeud parent = chemin.get(i - 1);
+                    char c = noeud.etiquette.charAt(0);
+                    if (noeud.enfants.isEmpty()) {
+                        parent.enfants.remove(c);
+                    } else {
+                        Noeud seul = noeud.enfants.values().iterator().next();
+                        seul.etiquette = noeud.etiquette + seul.etiquette;
+                        parent.enfants.put(c, seul);
+                    }
+                    noeuds--;
+                    continue;
+                }
+                Phrase[] avant = noeud.meilleures;
+                noeud.meilleures = meilleures(noeud);
+                // classement inchangé sans la phrase : les ancêtres voient les mêmes candidates, dans le même ordre
+                if (Arrays.equals(avant, noeud.meilleures) && !Arrays.asList(avant).contains(phrase)) return;
+            }
+        }
+
+        private void classer(Noeud noeud) {
+            for (Noeud enfant : noeud.enfants.values()) {
+                classer(enfant);
+            }
+            noeud.meilleures = meilleures(noeud);
+        }
+
+        // les meilleures d'un sous-arbre sont parmi celles du nœud et les meilleures de ses enfants
+        private Phrase[] meilleures(Noeud noeud) {
+            Phrase[] top = new Phrase[taille];
+            int n = 0;
+            for (Phrase phrase : noeud.phrases) {
+                n = inserer(top, n, phrase);
+            }
+            for (Noeud enfant : noeud.enfants.values()) {
+                for (Phrase phrase : enfant.meilleures) {
+                    n = inserer(top, n, phrase);
+                }
+            }
+            return n == taille ? top : Arrays.copyOf(top, n);
+        }
+
+        // insertion dans un classement borné, sans doublon (une phrase peut remonter par deux enfants)
+        private static int inserer(Phrase[] top, int n, Phrase phrase) {
+            if (n == top.length && comparer(phrase, top[n - 1]) >= 0) return n;
+            for (int i = 0; i < n; i++) {
+                if (top[i] == phrase) return n;
+            }
+            int i = Math.min(n, top.length - 1);
+            while (i > 0 && comparer(phrase, top[i - 1]) < 0) {
+                top[i] = top[i - 1];
+                i--;
+            }
+            top[i] = phrase;
+            return Math.min(n + 1, top.length);
+        }
+
+        private static int prefixeCommun(String etiquette, String texte, int debut) {
+            int n = Math.min(etiquette.length(), texte.length() - debut);
+            int i = 0;
+            while (i < n && etiquette.charAt(i) == texte.charAt(debut + i)) i++;
+            return i;
+        }
+    }
+}
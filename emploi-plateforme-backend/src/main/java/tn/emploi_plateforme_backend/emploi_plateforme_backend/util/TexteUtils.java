@@ -0,0 +1,35 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class TexteUtils {
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    private TexteUtils() {
+    }
+
+    // minuscules sans accents : "Développeur Sénior" -> "developpeur senior"
+    public static String plier(String texte) {
+        if (texte == null) return "";
+        String decompose = Normalizer.normalize(texte, Normalizer.Form.NFD);
+        return DIACRITIQUES.matcher(decompose).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // empreinte SHA-256 hexadécimale du texte (UTF-8)
+    public static String empreinte(String texte) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] octets = (texte != null ? texte : "").getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(octets));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
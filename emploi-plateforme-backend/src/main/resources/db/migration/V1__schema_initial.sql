@@ -0,0 +1,99 @@
+-- schéma de référence : état produit par ddl-auto=update avant le passage aux migrations
+-- (les bases existantes sont marquées en V1 sans rejouer ce script, cf. spring.flyway.baseline-on-migrate)
+-- les tables et colonnes ajoutées depuis arrivent par les migrations suivantes
+
+create table candidat (
+    cv_upload_date datetime(6),
+    id bigint not null,
+    cv_path varchar(500),
+    cin varchar(255) not null,
+    fonction_actuelle varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table candidature (
+    score decimal(5,4),
+    candidat_id bigint not null,
+    date_postulation datetime(6) not null,
+    id bigint not null auto_increment,
+    offre_id bigint not null,
+    lettre_motivation TEXT,
+    decision enum ('ACCEPTEE','REFUSEE'),
+    etat enum ('ACCEPTEE','EN_ATTENTE','REFUSEE'),
+    primary key (id)
+) engine=InnoDB;
+
+create table employeur (
+    id bigint not null,
+    matricule_fiscale varchar(255) not null,
+    nom_entreprise varchar(255) not null,
+    secteur_activite varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table offre (
+    date_expiration date not null,
+    date_publication date not null,
+    employeur_id bigint not null,
+    id_offre bigint not null auto_increment,
+    description varchar(2000),
+    localisation varchar(255) not null,
+    titre varchar(255) not null,
+    etat enum ('ACTIVE','EXPIREE','INACTIVE'),
+    primary key (id_offre)
+) engine=InnoDB;
+
+create table password_reset_token (
+    used bit not null,
+    expiration_date datetime(6),
+    id bigint not null auto_increment,
+    email varchar(255),
+    token varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table utilisateur (
+    date_creation datetime(6) not null,
+    date_miseajour datetime(6) not null,
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    mot_de_passe varchar(255) not null,
+    nom varchar(255) not null,
+    prenom varchar(255) not null,
+    role enum ('CANDIDAT','EMPLOYEUR'),
+    primary key (id)
+) engine=InnoDB;
+
+alter table candidat
+   add constraint UK68qqtjxblodxvt2yd36ssij9h unique (cin);
+
+alter table employeur
+   add constraint UKowd0yxuo3ok0nyr9uowc7f7fu unique (matricule_fiscale);
+
+alter table utilisateur
+   add constraint UKrma38wvnqfaf66vvmi57c71lo unique (email);
+
+alter table candidat
+   add constraint FKhppdo11soe04w74y0c2j31aaw
+   foreign key (id)
+   references utilisateur (id);
+
+alter table candidature
+   add constraint FKplts544b4lj10vtg3inok4c9e
+   foreign key (candidat_id)
+   references candidat (id);
+
+alter table candidature
+   add constraint FKreoctvslgrncreex2k469kb0g
+   foreign key (offre_id)
+   references offre (id_offre);
+
+alter table employeur
+   add constraint FKiv0opkqj9y1vboqoxhf5ourmy
+   foreign key (id)
+   references utilisateur (id);
+
+alter table offre
+   add constraint FKesxvjwjjm40sqyu8khjtu8k35
+   foreign key (employeur_id)
+   references employeur (id);
@@ -0,0 +1,81 @@
+-- extraction des CV, file de scoring, mémo des scores, recalcul et recommandations
+
+ALTER TABLE candidat
+    ADD COLUMN cv_date_extraction datetime(6),
+    ADD COLUMN cv_statut_extraction enum ('ECHEC','EN_ATTENTE','EN_COURS','PRETE');
+
+ALTER TABLE candidature
+    ADD COLUMN score_perime bit,
+    ADD COLUMN score_version_modele varchar(32),
+    ADD COLUMN score_cv_hash varchar(64),
+    ADD COLUMN score_offre_hash varchar(64),
+    ADD COLUMN statut_score enum ('CALCULE','EN_ATTENTE');
+
+-- candidatures existantes : sans version de modèle, leur score est périmé et repris par le recalcul
+UPDATE candidature
+SET statut_score = IF(score IS NULL, 'EN_ATTENTE', 'CALCULE'),
+    score_perime = 0;
+
+CREATE INDEX idx_candidature_score_perime ON candidature (score_perime);
+
+CREATE TABLE cv_extrait (
+    candidat_id bigint NOT NULL,
+    date_extraction datetime(6) NOT NULL,
+    cv_path varchar(500) NOT NULL,
+    texte LONGTEXT NOT NULL,
+    PRIMARY KEY (candidat_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE tache_scoring (
+    id bigint NOT NULL AUTO_INCREMENT,
+    candidature_id bigint NOT NULL,
+    statut enum ('ECHEC','EN_ATTENTE','EN_COURS') NOT NULL,
+    tentatives integer NOT NULL,
+    prochain_essai datetime(6) NOT NULL,
+    verrou_jusqua datetime(6),
+    derniere_erreur varchar(500),
+    date_creation datetime(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_tache_scoring_candidature UNIQUE (candidature_id),
+    INDEX idx_tache_scoring_statut_essai (statut, prochain_essai)
+) ENGINE=InnoDB;
+
+CREATE TABLE score_memo (
+    id bigint NOT NULL AUTO_INCREMENT,
+    cv_hash varchar(64) NOT NULL,
+    offre_hash varchar(64) NOT NULL,
+    version_modele varchar(32) NOT NULL,
+    score float(53) NOT NULL,
+    date_calcul datetime(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_score_memo UNIQUE (cv_hash, offre_hash, version_modele)
+) ENGINE=InnoDB;
+
+CREATE TABLE job_recalcul (
+    id bigint NOT NULL AUTO_INCREMENT,
+    statut enum ('ANNULE','ECHEC','EN_COURS','TERMINE') NOT NULL,
+    total bigint NOT NULL,
+    traitees bigint NOT NULL,
+    misesajour bigint NOT NULL,
+    traiteesala_reprise bigint NOT NULL,
+    dernier_candidat_id bigint,
+    derniere_candidature_id bigint,
+    date_debut datetime(6) NOT NULL,
+    date_maj datetime(6),
+    date_reprise datetime(6),
+    date_fin datetime(6),
+    erreur varchar(500),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE recommandation (
+    id bigint NOT NULL AUTO_INCREMENT,
+    candidat_id bigint NOT NULL,
+    offre_id bigint NOT NULL,
+    score float(53) NOT NULL,
+    date_calcul datetime(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT UKfuv7ovgbh9lhn7yb4pjxp4lss UNIQUE (candidat_id, offre_id),
+    INDEX idx_recommandation_candidat_score (candidat_id, score),
+    INDEX idx_recommandation_offre (offre_id)
+) ENGINE=InnoDB;
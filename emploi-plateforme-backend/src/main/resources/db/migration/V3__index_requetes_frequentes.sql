@@ -0,0 +1,7 @@
+-- index des requêtes fréquentes
+
+-- offres actives triées par date de publication (findByEtatOrderByDatePublicationDesc)
+CREATE INDEX idx_offre_etat_date_publication ON offre (etat, date_publication);
+
+-- candidatures d'une offre triées par score (findByOffreIdOffreOrderByScoreDesc, findTrieesParScore)
+CREATE INDEX idx_candidature_offre_score ON candidature (offre_id, score);
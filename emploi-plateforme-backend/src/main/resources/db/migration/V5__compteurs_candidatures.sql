@@ -0,0 +1,15 @@
+-- compteurs de candidatures par offre et par état, tenus à jour dans les transactions de candidature
+-- pas de ligne = aucun candidat
+CREATE TABLE compteur_candidatures (
+    offre_id bigint NOT NULL,
+    en_attente bigint NOT NULL,
+    acceptees bigint NOT NULL,
+    refusees bigint NOT NULL,
+    date_maj datetime(6),
+    PRIMARY KEY (offre_id)
+) ENGINE=InnoDB;
+
+INSERT INTO compteur_candidatures (offre_id, en_attente, acceptees, refusees, date_maj)
+SELECT offre_id, SUM(etat = 'EN_ATTENTE'), SUM(etat = 'ACCEPTEE'), SUM(etat = 'REFUSEE'), NOW(6)
+FROM candidature
+GROUP BY offre_id;
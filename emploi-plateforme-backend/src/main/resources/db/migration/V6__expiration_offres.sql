@@ -0,0 +1,8 @@
+-- expiration planifiée des offres : instant du passage à EXPIREE, lu par chaque nœud pour se synchroniser
+ALTER TABLE offre ADD COLUMN expiree_le datetime(6) NULL;
+
+-- offres actives arrivées à échéance (ExpirationOffresService)
+CREATE INDEX idx_offre_etat_date_expiration ON offre (etat, date_expiration);
+
+-- offres expirées depuis le dernier passage d'un nœud
+CREATE INDEX idx_offre_etat_expiree_le ON offre (etat, expiree_le);
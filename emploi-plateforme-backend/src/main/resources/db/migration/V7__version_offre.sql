@@ -0,0 +1,2 @@
+-- version de l'offre (verrou optimiste JPA), base des ETag des réponses GET /api/jobs
+ALTER TABLE offre ADD COLUMN version bigint NOT NULL DEFAULT 0;
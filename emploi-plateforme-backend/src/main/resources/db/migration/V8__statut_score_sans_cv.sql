@@ -0,0 +1,8 @@
+-- candidatures sans CV : score null et statut dédié, plutôt qu'un 0 présenté comme calculé
+ALTER TABLE candidature
+    MODIFY COLUMN statut_score enum ('CALCULE','EN_ATTENTE','SANS_CV');
+
+UPDATE candidature c
+    JOIN candidat k ON k.id = c.candidat_id
+SET c.score = NULL, c.statut_score = 'SANS_CV', c.score_cv_hash = NULL
+WHERE k.cv_path IS NULL OR k.cv_path = '';
@@ -0,0 +1,152 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// page de la liste publique : entités Offre (+ employeur JOINED) contre projection OffreResumeDTO
+// compare la taille du JSON et le p99 de lecture + sérialisation ; résultats dans les logs
+// hors de la suite par défaut : mvn test -Pbenchmark
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// chaque lecture dans son propre contexte de persistance, comme une requête HTTP
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LectureOffresBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(LectureOffresBenchmarkTests.class);
+
+    private static final int EMPLOYEURS = 200;
+    private static final int OFFRES = 5000;
+    private static final int TAILLE_PAGE = 20;
+    private static final int ECHAUFFEMENT = 50;
+    private static final int ITERATIONS = 500;
+    // toutes les offres semées sont actives : même ordre que findResumesActives
+    private static final Sort PAR_DATE_PUBLICATION = Sort.by(Sort.Direction.DESC, "datePublication", "idOffre");
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeAll
+    void semer() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> utilisateurs = new ArrayList<>();
+            List<Object[]> employeurs = new ArrayList<>();
+            for (long id = 1; id <= EMPLOYEURS; id++) {
+                utilisateurs.add(new Object[]{id, "e" + id + "@test.tn", "x", "Nom" + id, "Prenom" + id,
+                        "EMPLOYEUR", maintenant, maintenant});
+                employeurs.add(new Object[]{id, "MF" + id, "Entreprise " + id, "Informatique"});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO utilisateur (id, email, mot_de_passe, nom, prenom, role, " +
+                    "date_creation, date_miseajour) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", utilisateurs);
+            jdbcTemplate.batchUpdate("INSERT INTO employeur (id, matricule_fiscale, nom_entreprise, secteur_activite) " +
+                    "VALUES (?, ?, ?, ?)", employeurs);
+
+            LocalDate aujourdHui = LocalDate.now();
+            String description = "Description de l'offre ".repeat(40);
+            List<Object[]> offres = new ArrayList<>();
+            for (long id = 1; id <= OFFRES; id++) {
+                offres.add(new Object[]{id, "Offre " + id, description, "Tunis",
+                        Date.valueOf(aujourdHui.minusDays(id % 365)), Date.valueOf(aujourdHui.plusDays(30)),
+                        "ACTIVE", 1 + id % EMPLOYEURS});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO offre (id_offre, titre, description, localisation, " +
+                    "date_publication, date_expiration, etat, employeur_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", offres);
+        });
+        jdbcTemplate.execute("ANALYZE TABLE utilisateur, employeur, offre");
+    }
+
+    @Test
+    void projectionPlusLegereQueLesEntites() throws Exception {
+        Mesure entites = mesurer(page -> objectMapper.writeValueAsBytes(
+                offreRepository.findAll(PageRequest.of(page, TAILLE_PAGE, PAR_DATE_PUBLICATION))));
+        Mesure projection = mesurer(page -> objectMapper.writeValueAsBytes(
+                offreRepository.findResumesActives(PageRequest.of(page, TAILLE_PAGE))));
+
+        log.info("Page de {} offres - entités : {} octets, p50 {} ms, p99 {} ms", TAILLE_PAGE,
+                entites.octets(), entites.p50Ms(), entites.p99Ms());
+        log.info("Page de {} offres - projection : {} octets, p50 {} ms, p99 {} ms", TAILLE_PAGE,
+                projection.octets(), projection.p50Ms(), projection.p99Ms());
+
+        // la latence dépend de la machine : seule la taille est vérifiée
+        assertThat(projection.octets()).isLessThan(entites.octets());
+    }
+
+    private interface LecturePage {
+        byte[] lire(int page) throws Exception;
+    }
+
+    private record Mesure(int octets, double p50Ms, double p99Ms) {
+    }
+
+    private Mesure mesurer(LecturePage lecture) throws Exception {
+        int pages = OFFRES / TAILLE_PAGE;
+        int octets = lecture.lire(0).length;
+        for (int i = 0; i < ECHAUFFEMENT; i++) {
+            lecture.lire(i % pages);
+        }
+        long[] durees = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            int page = i % pages;
+            long debut = System.nanoTime();
+            lecture.lire(page);
+            durees[i] = System.nanoTime() - debut;
+        }
+        Arrays.sort(durees);
+        return new Mesure(octets, centile(durees, 0.50), centile(durees, 0.99));
+    }
+
+    private static double centile(long[] triees, double centile) {
+        int rang = (int) Math.ceil(centile * triees.length) - 1;
+        return triees[Math.max(0, rang)] / 1_000_000.0;
+    }
+}
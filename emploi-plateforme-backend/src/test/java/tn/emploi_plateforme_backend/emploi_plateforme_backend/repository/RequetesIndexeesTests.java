@@ -0,0 +1,206 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Candidat;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+// EXPLAIN des requêtes chaudes sur un jeu de données semé : aucune ne doit retomber sur un parcours complet
+// schéma créé par les migrations Flyway puis validé par Hibernate
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.RequetesIndexeesTests$CaptureSql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+// ANALYZE TABLE valide implicitement la transaction : pas de transaction de test
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RequetesIndexeesTests {
+
+    private static final int EMPLOYEURS = 30;
+    private static final int CANDIDATS = 600;
+    private static final int OFFRES = 3000;
+    private static final int CANDIDATURES_PAR_CANDIDAT = 30;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private OffreRepository offreRepository;
+
+    @Autowired
+    private CandidatureRepository candidatureRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // requêtes SQL générées par Hibernate, dans l'ordre d'exécution
+    public static class CaptureSql implements StatementInspector {
+        static final List<String> requetes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            requetes.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeAll
+    void semer() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Timestamp maintenant = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> utilisateurs = new ArrayList<>();
+            List<Object[]> employeurs = new ArrayList<>();
+            List<Object[]> candidats = new ArrayList<>();
+            for (long id = 1; id <= EMPLOYEURS + CANDIDATS; id++) {
+                boolean employeur = id <= EMPLOYEURS;
+                utilisateurs.add(new Object[]{id, "u" + id + "@test.tn", "x", "Nom" + id, "Prenom" + id,
+                        employeur ? "EMPLOYEUR" : "CANDIDAT", maintenant, maintenant});
+                if (employeur) {
+                    employeurs.add(new Object[]{id, "MF" + id, "Entreprise " + id, "Informatique"});
+                } else {
+                    candidats.add(new Object[]{id, "C" + id});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO utilisateur (id, email, mot_de_passe, nom, prenom, role, " +
+                    "date_creation, date_miseajour) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", utilisateurs);
+            jdbcTemplate.batchUpdate("INSERT INTO employeur (id, matricule_fiscale, nom_entreprise, secteur_activite) " +
+                    "VALUES (?, ?, ?, ?)", employeurs);
+            jdbcTemplate.batchUpdate("INSERT INTO candidat (id, cin) VALUES (?, ?)", candidats);
+
+            // une offre sur dix est active, comme en production où les offres expirées s'accumulent
+            LocalDate aujourdHui = LocalDate.now();
+            List<Object[]> offres = new ArrayList<>();
+            for (long id = 1; id <= OFFRES; id++) {
+                String etat = id % 10 == 0 ? "ACTIVE" : (id % 2 == 0 ? "EXPIREE" : "INACTIVE");
+                offres.add(new Object[]{id, "Offre " + id, "Tunis", Date.valueOf(aujourdHui.minusDays(id % 365)),
+                        Date.valueOf(aujourdHui.plusDays(30)), etat, 1 + id % EMPLOYEURS});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO offre (id_offre, titre, localisation, date_publication, " +
+                    "date_expiration, etat, employeur_id) VALUES (?, ?, ?, ?, ?, ?, ?)", offres);
+
+            List<Object[]> candidatures = new ArrayList<>();
+            for (long candidat = EMPLOYEURS + 1; candidat <= EMPLOYEURS + CANDIDATS; candidat++) {
+                for (int k = 0; k < CANDIDATURES_PAR_CANDIDAT; k++) {
+                    long offre = 1 + (candidat * 7 + k * 97L) % OFFRES;
+                    BigDecimal score = BigDecimal.valueOf((candidat * 31 + k * 17) % 10000, 4);
+                    candidatures.add(new Object[]{candidat, offre, maintenant, "EN_ATTENTE", score, "CALCULE"});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO candidature (candidat_id, offre_id, date_postulation, etat, score, " +
+                    "statut_score) VALUES (?, ?, ?, ?, ?, ?)", candidatures);
+        });
+        jdbcTemplate.execute("ANALYZE TABLE utilisateur, employeur, candidat, offre, candidature");
+    }
+
+    @Test
+    void offresActivesParDatePublication() {
+        List<Map<String, Object>> plan = expliquer(
+                () -> offreRepository.findByEtatOrderByDatePublicationDesc(StatutOffre.ACTIVE), "ACTIVE");
+        verifierSansParcoursComplet(plan);
+        assertThat(plan).anyMatch(ligne -> "idx_offre_etat_date_publication".equals(ligne.get("key")));
+    }
+
+    @Test
+    void resumesOffresActivesParDatePublication() {
+        verifierSansParcoursComplet(expliquer(
+                () -> offreRepository.findResumesActives(PageRequest.of(0, 20)), 20));
+    }
+
+    @Test
+    void offresActivesEchues() {
+        List<Map<String, Object>> plan = expliquer(
+                () -> offreRepository.verrouillerEchues(LocalDate.now(), 500), LocalDate.now(), 500);
+        verifierSansParcoursComplet(plan);
+        assertThat(plan).anyMatch(ligne -> "idx_offre_etat_date_expiration".equals(ligne.get("key")));
+    }
+
+    @Test
+    void candidaturesDUneOffreParScore() {
+        verifierSansParcoursComplet(expliquer(
+                () -> candidatureRepository.findByOffreIdOffreOrderByScoreDesc(42L), 42L));
+    }
+
+    @Test
+    void candidaturesTrieesParScoreAvecReprise() {
+        verifierSansParcoursComplet(expliquer(
+                () -> candidatureRepository.findTrieesParScore(42L, new BigDecimal("0.5000"), 0L, PageRequest.of(0, 50)),
+                42L, new BigDecimal("0.5000"), new BigDecimal("0.5000"), new BigDecimal("0.5000"), 0L, 50));
+    }
+
+    @Test
+    void dejaPostule() {
+        Candidat candidat = (Candidat) candidatureRepository.findById(1L).orElseThrow().getCandidat();
+        Offre offre = offreRepository.findById(1L + (candidat.getId() * 7) % OFFRES).orElseThrow();
+        List<Map<String, Object>> plan = expliquer(
+                () -> candidatureRepository.existsByCandidatAndOffre(candidat, offre),
+                candidat.getId(), offre.getIdOffre(), 1);
+        verifierSansParcoursComplet(plan);
+        assertThat(plan).anyMatch(ligne -> "uk_candidature_candidat_offre".equals(ligne.get("key")));
+    }
+
+    @Test
+    void offresPostuleesParCandidat() {
+        verifierSansParcoursComplet(expliquer(
+                () -> candidatureRepository.findOffreIdsByCandidatId(EMPLOYEURS + 1L), EMPLOYEURS + 1L));
+    }
+
+    // exécute l'appel, récupère la première requête émise et l'explique avec les valeurs fournies
+    private List<Map<String, Object>> expliquer(Runnable appel, Object... valeurs) {
+        CaptureSql.requetes.clear();
+        appel.run();
+        assertThat(CaptureSql.requetes).as("aucune requête capturée").isNotEmpty();
+        String sql = CaptureSql.requetes.get(0);
+
+        long parametres = sql.chars().filter(c -> c == '?').count();
+        if (parametres != valeurs.length) {
+            fail("%d paramètres attendus par la requête, %d fournis : %s", parametres, valeurs.length, sql);
+        }
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, valeurs);
+    }
+
+    private static void verifierSansParcoursComplet(List<Map<String, Object>> plan) {
+        assertThat(plan).isNotEmpty();
+        for (Map<String, Object> ligne : plan) {
+            assertThat(ligne.get("type"))
+                    .as("parcours complet de %s : %s", ligne.get("table"), plan)
+                    .isNotEqualTo("ALL");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package tn.emploi_plateforme_backend.emploi_plateforme_backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.dto.SuggestionDTO;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.Offre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.entity.StatutOffre;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreModifieeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.event.OffreSupprimeeEvent;
+import tn.emploi_plateforme_backend.emploi_plateforme_backend.repository.OffreRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// arbre de suggestions sans Spring : le dépôt est simulé par une table en mémoire (id -> titre)
+class SuggestionsOffresIndexTests {
+
+    private static final int TAILLE = 4;
+    private static final String[] MOTS = {"a", "ab", "abc", "b", "ba", "java", "jav", "dev", "devops", "de"};
+    private static final String[] SAISIES = {"", "a", "ab", "j", "java", "d", "de", "dev", "b", "abc a", "java d", "z"};
+
+    private final Map<Long, String> actives = new HashMap<>();
+    private SuggestionsOffresIndex index;
+
+    @BeforeEach
+    void preparer() {
+        OffreRepository offreRepository = mock(OffreRepository.class);
+        when(offreRepository.findById(anyLong())).thenAnswer(invocation -> {
+            String titre = actives.get(invocation.<Long>getArgument(0));
+            return Optional.ofNullable(titre != null ? offre(titre, "Tunis") : null);
+        });
+        when(offreRepository.findTitresLocalisationsActives()).thenAnswer(invocation -> {
+            List<Object[]> lignes = new ArrayList<>();
+            actives.forEach((id, titre) -> lignes.add(new Object[]{id, titre, "Tunis"}));
+            return lignes;
+        });
+        index = new SuggestionsOffresIndex(TAILLE);
+        ReflectionTestUtils.setField(index, "offreRepository", offreRepository);
+    }
+
+    @Test
+    void miseAJourIncrementaleConformeAuCalculExhaustif() {
+        Random random = new Random(7);
+        for (int operation = 0; operation < 20000; operation++) {
+            long id = random.nextInt(300);
+            if (actives.remove(id) != null) {
+                index.onOffreSupprimee(new OffreSupprimeeEvent(id));
+            } else {
+                actives.put(id, titreAuHasard(random));
+                index.onOffreModifiee(new OffreModifieeEvent(id, true, true));
+            }
+            if (operation % 50 == 0) {
+                verifierContreCalculExhaustif();
+            }
+        }
+    }
+
+    @Test
+    void constructionEnBlocConformeAuCalculExhaustif() {
+        Random random = new Random(11);
+        for (long id = 0; id < 500; id++) {
+            actives.put(id, titreAuHasard(random));
+        }
+        index.construire();
+        verifierContreCalculExhaustif();
+
+        for (long id = 0; id < 500; id += 3) {
+            actives.remove(id);
+            index.onOffreSupprimee(new OffreSupprimeeEvent(id));
+        }
+        verifierContreCalculExhaustif();
+    }
+
+    @Test
+    void accentsEtCasseRepliesDansLaSaisieEtLesTitres() {
+        publier(1L, "Ingénieur Logiciel");
+        publier(2L, "INGENIEUR logiciel");
+        publier(3L, "Ingénieur Réseau");
+        publier(4L, "Développeur Java");
+
+        // même phrase une fois repliée : affichée sous la forme de la première offre
+        assertThat(index.suggererTitres("ingé", 10)).containsExactly(
+                new SuggestionDTO("Ingénieur Logiciel", 2),
+                new SuggestionDTO("Ingénieur Réseau", 1));
+        assertThat(index.suggererTitres("INGE", 10)).isEqualTo(index.suggererTitres("ingé", 10));
+        assertThat(index.suggererTitres("reseau", 10)).containsExactly(new SuggestionDTO("Ingénieur Réseau", 1));
+        assertThat(index.suggererTitres("JAVA", 10)).containsExactly(new SuggestionDTO("Développeur Java", 1));
+        assertThat(index.suggererTitres("developpeur-ja", 10)).containsExactly(new SuggestionDTO("Développeur Java", 1));
+        assertThat(index.suggererTitres("python", 10)).isEmpty();
+    }
+
+    @Test
+    void saisieVideOuBlancheProposeLesPlusFrequentes() {
+        publier(1L, "Comptable");
+        publier(2L, "Développeur Java");
+        publier(3L, "Développeur Java");
+        publier(4L, "Commercial");
+        publier(5L, "Commercial");
+        publier(6L, "Commercial");
+
+        List<SuggestionDTO> attendues = List.of(
+                new SuggestionDTO("Commercial", 3),
+                new SuggestionDTO("Développeur Java", 2));
+        assertThat(index.suggererTitres("", 2)).isEqualTo(attendues);
+        assertThat(index.suggererTitres("   ", 2)).isEqualTo(attendues);
+        assertThat(index.suggererTitres(null, 2)).isEqualTo(attendues);
+        assertThat(index.suggererLocalisations(" ", 5)).containsExactly(new SuggestionDTO("Tunis", 6));
+    }
+
+    private void publier(Long id, String titre) {
+        actives.put(id, titre);
+        index.onOffreModifiee(new OffreModifieeEvent(id, true, true));
+    }
+
+    private void verifierContreCalculExhaustif() {
+        Map<String, Integer> nbOffres = new HashMap<>();
+        actives.values().forEach(titre -> nbOffres.merge(titre, 1, Integer::sum));
+        for (String saisie : SAISIES) {
+            List<SuggestionDTO> attendues = nbOffres.keySet().stream()
+                    .filter(titre -> correspond(titre, saisie))
+                    .sorted(Comparator.comparingInt((String titre) -> -nbOffres.get(titre))
+                            .thenComparingInt(String::length)
+                            .thenComparing(Comparator.naturalOrder()))
+                    .limit(TAILLE)
+                    .map(titre -> new SuggestionDTO(titre, nbOffres.get(titre)))
+                    .toList();
+            assertThat(index.suggererTitres(saisie, TAILLE)).as("saisie \"%s\"", saisie).isEqualTo(attendues);
+        }
+    }
+
+    // la saisie préfixe le titre ou l'un de ses suffixes commençant à un mot
+    private static boolean correspond(String titre, String saisie) {
+        String[] mots = titre.split(" ");
+        for (int i = 0; i < mots.length; i++) {
+            if (String.join(" ", Arrays.copyOfRange(mots, i, mots.length)).startsWith(saisie)) return true;
+        }
+        return false;
+    }
+
+    private static String titreAuHasard(Random random) {
+        StringBuilder titre = new StringBuilder();
+        int mots = 1 + random.nextInt(3);
+        for (int i = 0; i < mots; i++) {
+            if (i > 0) titre.append(' ');
+            titre.append(MOTS[random.nextInt(MOTS.length)]);
+        }
+        return titre.toString();
+    }
+
+    private static Offre offre(String titre, String localisation) {
+        Offre offre = new Offre();
+        offre.setTitre(titre);
+        offre.setLocalisation(localisation);
+        offre.setEtat(StatutOffre.ACTIVE);
+        return offre;
+    }
+}
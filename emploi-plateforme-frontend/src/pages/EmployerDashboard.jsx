@@ -350,6 +350,8 @@ const EmployerDashboard = () => {
   };
 
   const getApplicationsByJob = (jobId) => {
+    const job = jobs.find((j) => j.idOffre === jobId);
+    if (job?.nbCandidatures) return job.nbCandidatures.total;
     return applications.filter((app) => app.offre?.idOffre === jobId).length;
   };
 
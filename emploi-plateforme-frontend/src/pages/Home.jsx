@@ -23,6 +23,8 @@ const Home = () => {
   const [loading, setLoading] = useState(true);
   const [searchTitle, setSearchTitle] = useState("");
   const [searchLocation, setSearchLocation] = useState("");
+  const [titleSuggestions, setTitleSuggestions] = useState([]);
+  const [locationSuggestions, setLocationSuggestions] = useState([]);
   const [error, setError] = useState("");
   const [feedback, setFeedback] = useState("");
 
@@ -42,6 +44,21 @@ const Home = () => {
     loadJobs();
   }, [currentPage]);
 
+  // suggestions pendant la saisie, avec un court délai entre deux frappes
+  useEffect(() => {
+    const timer = setTimeout(async () => {
+      setTitleSuggestions(await jobService.suggestJobs(searchTitle, "title"));
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [searchTitle]);
+
+  useEffect(() => {
+    const timer = setTimeout(async () => {
+      setLocationSuggestions(await jobService.suggestJobs(searchLocation, "location"));
+    }, 150);
+    return () => clearTimeout(timer);
+  }, [searchLocation]);
+
   useEffect(() => {
     if (currentUser && currentUser.role === "CANDIDAT") {
       loadUserApplications();
@@ -294,7 +311,15 @@ const Home = () => {
                     placeholder="Titre du poste..."
                     value={searchTitle}
                     onChange={(e) => setSearchTitle(e.target.value)}
+                    list="title-suggestions"
                   />
+                  <datalist id="title-suggestions">
+                    {titleSuggestions.map((s) => (
+                      <option key={s.texte} value={s.texte}>
+                        {s.nbOffres} offre(s)
+                      </option>
+                    ))}
+                  </datalist>
                 </InputGroup>
               </Col>
               <Col md={5}>
@@ -307,7 +332,15 @@ const Home = () => {
                     placeholder="Localisation..."
                     value={searchLocation}
                     onChange={(e) => setSearchLocation(e.target.value)}
+                    list="location-suggestions"
                   />
+                  <datalist id="location-suggestions">
+                    {locationSuggestions.map((s) => (
+                      <option key={s.texte} value={s.texte}>
+                        {s.nbOffres} offre(s)
+                      </option>
+                    ))}
+                  </datalist>
                 </InputGroup>
               </Col>
               <Col md={2}>
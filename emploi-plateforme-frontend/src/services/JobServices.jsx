@@ -122,6 +122,37 @@ const jobService = {
     }
   },
 
+  // offres actives par tranches (pagination par clé) : passer la dernière offre reçue pour la suite
+  getActiveJobsPage: async (lastJob = null, limit = 50, since = null) => {
+    try {
+      const response = await axios.get(`${API_URL}/jobs/active/page`, {
+        params: {
+          limit,
+          since: since || undefined,
+          afterDate: lastJob?.datePublication,
+          afterId: lastJob?.idOffre,
+        },
+      });
+      return response.data;
+    } catch (error) {
+      console.error("Erreur getActiveJobsPage:", error);
+      throw error;
+    }
+  },
+
+  // suggestions de saisie : field = "title" ou "location"
+  suggestJobs: async (q, field = "title", limit = 8) => {
+    try {
+      const response = await axios.get(`${API_URL}/jobs/suggest`, {
+        params: { q, field, limit },
+      });
+      return response.data;
+    } catch (error) {
+      console.error("Erreur suggestJobs:", error);
+      return [];
+    }
+  },
+
   // postuler + lettre de motivation
   applyToJobWithMotivation: async (jobId, motivationLetter) => {
     try {
@@ -217,6 +248,20 @@ const jobService = {
     }
   },
 
+  // mise a jour statut par lot : decisions = [{ applicationId, status }], résultat par candidature
+  updateApplicationStatusBatch: async (decisions) => {
+    try {
+      const response = await axios.put(`${API_URL}/applications/status`, decisions);
+      return response.data;
+    } catch (error) {
+      console.error("Erreur API updateApplicationStatusBatch:", error);
+      if (error.response?.status === 400) {
+        throw new Error(error.response.data.message || "Données invalides");
+      }
+      throw new Error("Erreur lors de la mise à jour des statuts");
+    }
+  },
+
   updateApplicationStatusLegacy: async (applicationId, statusData) => {
     try {
       const requestData =
@@ -253,6 +298,20 @@ const jobService = {
     }
   },
 
+  // vérifie plusieurs offres en un seul appel, renvoie les ids déjà postulés
+  checkIfAppliedBatch: async (jobIds) => {
+    try {
+      const response = await axios.get(
+        `${API_URL}/applications/candidate/check`,
+        { params: { jobIds: jobIds.join(",") } }
+      );
+      return response.data.appliedJobIds || [];
+    } catch (error) {
+      console.warn("Impossible de vérifier les candidatures:", error);
+      return [];
+    }
+  },
+
   // r écupérer détails  candidature
   getApplicationDetails: async (applicationId) => {
     try {
@@ -468,34 +527,19 @@ const jobService = {
   // get stat pr employeur
   getEmployerStats: async () => {
     try {
+      // compteurs de candidatures fournis avec chaque offre
       const jobs = await jobService.getEmployerJobs();
-      let allApplications = [];
-
-      for (const job of jobs) {
-        try {
-          const jobApplications = await jobService.getJobApplications(
-            job.idOffre
-          );
-          allApplications = [...allApplications, ...jobApplications];
-        } catch (error) {
-          console.log(`Pas de candidatures pour l'offre ${job.idOffre}`);
-        }
-      }
+      const sum = (key) =>
+        jobs.reduce((total, job) => total + (job.nbCandidatures?.[key] || 0), 0);
 
       return {
         totalJobs: jobs.length,
         activeJobs: jobs.filter((job) => job.etat === "ACTIVE").length,
         expiredJobs: jobs.filter((job) => job.etat === "EXPIREE").length,
-        totalApplications: allApplications.length,
-        pendingApplications: allApplications.filter(
-          (app) => app.etat === "EN_ATTENTE"
-        ).length,
-        acceptedApplications: allApplications.filter(
-          (app) => app.etat === "ACCEPTEE"
-        ).length,
-        rejectedApplications: allApplications.filter(
-          (app) => app.etat === "REFUSEE"
-        ).length,
+        totalApplications: sum("total"),
+        pendingApplications: sum("enAttente"),
+        acceptedApplications: sum("acceptees"),
+        rejectedApplications: sum("refusees"),
       };
     } catch (error) {
       console.error("Erreur lors du calcul des statistiques:", error);
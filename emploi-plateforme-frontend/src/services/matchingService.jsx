@@ -59,12 +59,25 @@ const matchingService = {
     }
   },
 
-  recalculateMatchingScores: async () => {
+  // le recalcul tourne en arrière-plan : on suit sa progression jusqu'à la fin
+  recalculateMatchingScores: async (onProgress) => {
     try {
       const response = await axios.post(
         `${API_URL}/applications/recalculate-scores`
       );
-      return response.data;
+      let job = response.data;
+      while (job.statut === "EN_COURS") {
+        if (onProgress) onProgress(job);
+        await new Promise((resolve) => setTimeout(resolve, 2000));
+        const progress = await axios.get(
+          `${API_URL}/applications/recalculate-scores/${job.jobId}`
+        );
+        job = progress.data;
+      }
+      if (job.statut === "ECHEC") {
+        throw new Error(job.erreur || "Erreur lors du recalcul des scores");
+      }
+      return job;
     } catch (error) {
       console.error("Erreur recalculateMatchingScores:", error);
       throw new Error(